@@ -0,0 +1,66 @@
+package com.example.querydsl.benchmark;
+
+import com.example.querydsl.entity.Member;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.querydsl.entity.QMember.member;
+import static com.example.querydsl.entity.QTeam.team;
+
+// 회원과 팀 이름을 함께 읽을 때 fetch join vs 지연 로딩 (default_batch_fetch_size 로 in 쿼리 조회)
+// 지연 로딩은 트랜잭션 안에서만 가능하므로 둘 다 같은 트랜잭션 경계로 측정
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class FetchJoinBenchmark {
+    private JPAQueryFactory queryFactory;
+    private TransactionTemplate tx;
+
+    @Setup(Level.Trial)
+    public void setUp(SpringContextState state, SampleDataState data) {
+        queryFactory = new JPAQueryFactory(state.getBean(EntityManager.class));
+        tx = state.tx;
+    }
+
+    @Benchmark
+    public void fetchJoin(Blackhole bh) {
+        tx.executeWithoutResult(status -> {
+            List<Member> members = queryFactory
+                    .selectFrom(member)
+                    .join(member.team, team).fetchJoin()
+                    .fetch();
+            for (Member m : members) {
+                bh.consume(m.getTeam().getName());
+            }
+        });
+    }
+
+    @Benchmark
+    public void lazyLoading(Blackhole bh) {
+        tx.executeWithoutResult(status -> {
+            List<Member> members = queryFactory
+                    .selectFrom(member)
+                    .fetch();
+            for (Member m : members) {
+                bh.consume(m.getTeam().getName());
+            }
+        });
+    }
+}
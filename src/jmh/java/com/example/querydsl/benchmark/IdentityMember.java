@@ -0,0 +1,32 @@
+package com.example.querydsl.benchmark;
+
+import lombok.Getter;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+// MemberBulkInsertBenchmark 비교용 - pooled 시퀀스 도입 전 Member 와 같은 IDENTITY 전략
+// insert 를 실행해야 id 를 알 수 있으므로 hibernate 가 jdbc batch 로 묶지 못함
+// 벤치마크 클래스패스에만 있으므로 bench 프로파일에서만 테이블이 생김
+@Entity
+@Table(name = "identity_member")
+@Getter
+public class IdentityMember {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String username;
+    private int age;
+
+    // hibernate 가 사용, 생성자를 직접 써서 jmh 소스셋의 lombok 설정과 관계없이 항상 있음
+    protected IdentityMember() {
+    }
+
+    IdentityMember(String username, int age) {
+        this.username = username;
+        this.age = age;
+    }
+}
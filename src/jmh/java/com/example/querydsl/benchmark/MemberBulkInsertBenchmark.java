@@ -0,0 +1,97 @@
+package com.example.querydsl.benchmark;
+
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import com.example.querydsl.repository.MemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 회원 대량 저장 - save 반복 vs saveAll (chunk flush/clear + jdbc batch) vs IDENTITY 전략(batch 불가)에서 같은 chunk 저장
+// OperationsPerInvocation 으로 한 번 호출에 ROWS 건을 저장하므로 결과 ops/s 가 곧 rows/s
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class MemberBulkInsertBenchmark {
+    private static final int ROWS = 10_000;
+    // MemberRepository.saveAll 의 기본 chunk 크기와 같음
+    private static final int CHUNK_SIZE = 100;
+
+    private Team team;
+    // username 이 유니크이므로 호출마다 다른 이름 사용
+    private long sequence;
+
+    @Setup(Level.Iteration)
+    public void setUp(SpringContextState state) {
+        state.tx.executeWithoutResult(status -> {
+            EntityManager em = state.getBean(EntityManager.class);
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from IdentityMember").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+            team = new Team("benchTeam");
+            em.persist(team);
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void save(SpringContextState state) {
+        MemberRepository memberRepository = state.getBean(MemberRepository.class);
+        state.tx.executeWithoutResult(status -> {
+            for (Member member : newMembers()) {
+                memberRepository.save(member);
+            }
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void saveAll(SpringContextState state) {
+        MemberRepository memberRepository = state.getBean(MemberRepository.class);
+        state.tx.executeWithoutResult(status -> memberRepository.saveAll(newMembers()));
+    }
+
+    // pooled 시퀀스 도입 전 경로 - saveAll 과 같은 chunk flush/clear 지만 insert 마다 실행해서 id 를 받아옴
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void saveAllIdentity(SpringContextState state) {
+        EntityManager em = state.getBean(EntityManager.class);
+        state.tx.executeWithoutResult(status -> {
+            for (int i = 0; i < ROWS; i++) {
+                em.persist(new IdentityMember("member" + sequence++, i % 100));
+                if ((i + 1) % CHUNK_SIZE == 0) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+            em.flush();
+            em.clear();
+        });
+    }
+
+    // team 은 준영속 상태로 참조만 함 (changeTeam 으로 team.members 에 쌓이지 않도록 setter 사용)
+    private List<Member> newMembers() {
+        List<Member> members = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Member member = new Member("member" + sequence++, i % 100);
+            member.setTeam(team);
+            members.add(member);
+        }
+        return members;
+    }
+}
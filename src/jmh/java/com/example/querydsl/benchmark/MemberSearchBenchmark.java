@@ -0,0 +1,58 @@
+package com.example.querydsl.benchmark;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.dto.MemberTeamDto;
+import com.example.querydsl.repository.MemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 동적 쿼리 작성 방식 비교 - BooleanBuilder vs where 다중 파라미터 vs jpql 직접 작성 vs 조건 모양별 jpql 템플릿
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class MemberSearchBenchmark {
+    private MemberRepository memberRepository;
+    private MemberSearchCondition condition;
+
+    @Setup(Level.Trial)
+    public void setUp(SpringContextState state, SampleDataState data) {
+        memberRepository = state.getBean(MemberRepository.class);
+        condition = new MemberSearchCondition();
+        condition.setTeamName("team7");
+        condition.setAgeGoe(20);
+        condition.setAgeLoe(40);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchByBuilder() {
+        return memberRepository.searchByBuilder(condition);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchByWhere() {
+        return memberRepository.searchByWhere(condition);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchByJpql() {
+        return memberRepository.searchByJpql(condition);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchByTemplate() {
+        return memberRepository.searchByTemplate(condition);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.querydsl.benchmark;
+
+import com.example.querydsl.dto.MemberUpsertDto;
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import com.example.querydsl.repository.MemberRepository;
+import com.example.querydsl.repository.TeamRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 피드 수집 - 한 건씩 조회 후 save/변경 감지 vs upsertAll (insert ... on duplicate key update)
+// 피드의 절반은 이미 있는 회원, 절반은 새 회원. 결과 ops/s 가 곧 rows/s
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class MemberUpsertBenchmark {
+    private static final int ROWS = 2_000;
+
+    private Long teamId;
+    private long sequence;
+
+    @Setup(Level.Iteration)
+    public void setUp(SpringContextState state) {
+        state.tx.executeWithoutResult(status -> {
+            EntityManager em = state.getBean(EntityManager.class);
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+            Team team = new Team("benchTeam");
+            state.getBean(TeamRepository.class).saveAll(Collections.singletonList(team));
+            teamId = team.getId();
+
+            List<Member> existing = new ArrayList<>(ROWS / 2);
+            for (int i = 0; i < ROWS / 2; i++) {
+                existing.add(new Member("existing" + i, i % 100));
+            }
+            state.getBean(MemberRepository.class).saveAll(existing);
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void findThenSave(SpringContextState state) {
+        MemberRepository memberRepository = state.getBean(MemberRepository.class);
+        Team team = state.getBean(TeamRepository.class).findById(teamId).orElseThrow();
+        state.tx.executeWithoutResult(status -> {
+            for (MemberUpsertDto row : feed()) {
+                List<Member> found = memberRepository.findByname_queryDsl(row.getUsername());
+                if (found.isEmpty()) {
+                    Member member = new Member(row.getUsername(), row.getAge());
+                    member.setTeam(team);
+                    memberRepository.save(member);
+                } else {
+                    found.get(0).setAge(row.getAge());
+                    found.get(0).setTeam(team);
+                }
+            }
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void upsertAll(SpringContextState state) {
+        MemberRepository memberRepository = state.getBean(MemberRepository.class);
+        state.tx.executeWithoutResult(status -> memberRepository.upsertAll(feed()));
+    }
+
+    private List<MemberUpsertDto> feed() {
+        List<MemberUpsertDto> feed = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS / 2; i++) {
+            feed.add(new MemberUpsertDto("existing" + i, (int) (sequence % 100), teamId));
+            feed.add(new MemberUpsertDto("new" + sequence++, i % 100, teamId));
+        }
+        return feed;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.querydsl.benchmark;
+
+import com.example.querydsl.columnar.MemberColumns;
+import com.example.querydsl.columnar.MemberColumnsLoader;
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.dto.MemberTeamDto;
+import com.example.querydsl.dto.QMemberTeamDto;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.querydsl.entity.QMember.member;
+import static com.example.querydsl.entity.QTeam.team;
+
+// dto 프로젝션 방식 비교 - setter(bean) vs 필드 직접 접근(fields) vs 생성자(constructor) vs @QueryProjection
+// columns 는 dto 없이 열 단위 기본형 배열로 채움 (username 제외), -prof gc 로 행당 할당량 비교
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ProjectionBenchmark {
+    private JPAQueryFactory queryFactory;
+    private MemberColumnsLoader columnsLoader;
+
+    @Setup(Level.Trial)
+    public void setUp(SpringContextState state, SampleDataState data) {
+        queryFactory = new JPAQueryFactory(state.getBean(EntityManager.class));
+        columnsLoader = state.getBean(MemberColumnsLoader.class);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> bean() {
+        return queryFactory
+                .select(Projections.bean(MemberTeamDto.class,
+                        member.id.as("memberId"), member.username, member.age,
+                        team.id.as("teamId"), team.name.as("teamName")))
+                .from(member)
+                .leftJoin(member.team, team)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> fields() {
+        return queryFactory
+                .select(Projections.fields(MemberTeamDto.class,
+                        member.id.as("memberId"), member.username, member.age,
+                        team.id.as("teamId"), team.name.as("teamName")))
+                .from(member)
+                .leftJoin(member.team, team)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> constructor() {
+        return queryFactory
+                .select(Projections.constructor(MemberTeamDto.class,
+                        member.id, member.username, member.age, team.id, team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> queryProjection() {
+        return queryFactory
+                .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .fetch();
+    }
+
+    @Benchmark
+    public MemberColumns columns() {
+        return columnsLoader.load(new MemberSearchCondition(), SampleDataState.TEAMS * SampleDataState.MEMBERS_PER_TEAM);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.querydsl.benchmark;
+
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import com.example.querydsl.repository.MemberRepository;
+import com.example.querydsl.repository.TeamRepository;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 회원 100,000 건 조회 시 트랜잭션이 끝나기 전까지 남아있는 힙 (엔티티 + 영속성 컨텍스트 스냅샷)
+// 일반 조회 vs 읽기 전용 조회, 결과의 retainedBytes 가 100k 행당 힙 사용량
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ReadOnlyQueryBenchmark {
+    private static final int ROWS = 100_000;
+
+    private MemberRepository memberRepository;
+    private TransactionTemplate tx;
+    private TransactionTemplate readOnlyTx;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Heap {
+        public long retainedBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            retainedBytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp(SpringContextState state) {
+        memberRepository = state.getBean(MemberRepository.class);
+        TeamRepository teamRepository = state.getBean(TeamRepository.class);
+        PlatformTransactionManager transactionManager = state.getBean(PlatformTransactionManager.class);
+        tx = new TransactionTemplate(transactionManager);
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+
+        tx.executeWithoutResult(status -> {
+            Team team = new Team("benchTeam");
+            teamRepository.saveAll(Collections.singletonList(team));
+            List<Member> members = new ArrayList<>(ROWS);
+            for (int i = 0; i < ROWS; i++) {
+                Member member = new Member("member" + i, i % 100);
+                member.setTeam(team);
+                members.add(member);
+            }
+            memberRepository.saveAll(members);
+        });
+    }
+
+    @Benchmark
+    public void managed(Heap heap, Blackhole bh) {
+        tx.executeWithoutResult(status -> {
+            long before = usedHeapAfterGc();
+            List<Member> members = memberRepository.findAll_queryDsl();
+            heap.retainedBytes = usedHeapAfterGc() - before;
+            bh.consume(members);
+        });
+    }
+
+    @Benchmark
+    public void readOnly(Heap heap, Blackhole bh) {
+        readOnlyTx.executeWithoutResult(status -> {
+            long before = usedHeapAfterGc();
+            List<Member> members = memberRepository.findAll_readOnly();
+            heap.retainedBytes = usedHeapAfterGc() - before;
+            bh.consume(members);
+        });
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.querydsl.benchmark;
+
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import com.example.querydsl.repository.MemberRepository;
+import com.example.querydsl.repository.TeamRepository;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 조회 벤치마크용 데이터 (TEAMS 개 팀, 팀마다 MEMBERS_PER_TEAM 명)
+@State(Scope.Benchmark)
+public class SampleDataState {
+    static final int TEAMS = 100;
+    static final int MEMBERS_PER_TEAM = 100;
+
+    @Setup(Level.Trial)
+    public void seed(SpringContextState state) {
+        TeamRepository teamRepository = state.getBean(TeamRepository.class);
+        MemberRepository memberRepository = state.getBean(MemberRepository.class);
+
+        state.tx.executeWithoutResult(status -> {
+            List<Team> teams = new ArrayList<>(TEAMS);
+            for (int i = 0; i < TEAMS; i++) {
+                teams.add(new Team("team" + i));
+            }
+            teamRepository.saveAll(teams);
+
+            List<Member> members = new ArrayList<>(TEAMS * MEMBERS_PER_TEAM);
+            for (int i = 0; i < TEAMS * MEMBERS_PER_TEAM; i++) {
+                Member member = new Member("member" + i, i % 60);
+                member.setTeam(teams.get(i % TEAMS));
+                members.add(member);
+            }
+            memberRepository.saveAll(members);
+        });
+    }
+}
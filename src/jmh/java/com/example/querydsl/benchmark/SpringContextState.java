@@ -0,0 +1,39 @@
+package com.example.querydsl.benchmark;
+
+import com.example.querydsl.QuerydslApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 벤치마크마다 스프링 컨텍스트를 한 번 띄워서 공유
+// bench 프로파일로 내장 h2 를 사용 (src/jmh/resources/application-bench.yml)
+@State(Scope.Benchmark)
+public class SpringContextState {
+    ConfigurableApplicationContext context;
+    TransactionTemplate tx;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(QuerydslApplication.class)
+                .profiles("bench")
+                .web(WebApplicationType.NONE)
+                .run();
+        tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.querydsl.loadtest;
+
+import java.util.Arrays;
+
+// 지연 시간(ns) 기록 - 클라이언트(스레드)마다 하나씩 쓰고 끝난 뒤 합침
+// 정렬해서 백분위를 구하므로 근사값이 아님 (기록 하나에 8 byte)
+class Latencies {
+    private long[] values = new long[1024];
+    private int size;
+    private long errors;
+
+    void record(long nanos) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = nanos;
+    }
+
+    void error() {
+        errors++;
+    }
+
+    void addAll(Latencies other) {
+        if (size + other.size > values.length) {
+            values = Arrays.copyOf(values, Math.max(values.length * 2, size + other.size));
+        }
+        System.arraycopy(other.values, 0, values, size, other.size);
+        size += other.size;
+        errors += other.errors;
+    }
+
+    int count() {
+        return size;
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    // 합친 뒤 한 번 호출
+    void sort() {
+        Arrays.sort(values, 0, size);
+    }
+
+    // sort 이후, p 는 0 ~ 1 (nearest-rank)
+    long percentile(double p) {
+        if (size == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(p * size);
+        return values[Math.max(0, Math.min(size - 1, rank - 1))];
+    }
+
+    long max() {
+        return size == 0 ? 0 : values[size - 1];
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.querydsl.loadtest;
+
+import com.example.querydsl.QuerydslApplication;
+import com.example.querydsl.readmodel.MemberTeamViewProjector;
+import com.example.querydsl.readmodel.ReadModelProperties;
+import com.example.querydsl.repository.MemberRepository;
+import com.example.querydsl.search.MemberUsernameIndex;
+import com.example.querydsl.statistics.TeamStatisticsUpdater;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+
+/*
+부하 테스트 - 내장 h2(bench 프로파일)에 데이터를 만들고 MemberRepository 에 동시 요청
+./gradlew loadTest --args='--loadtest.generator.members=1000000 --loadtest.runner.clients=16 --loadtest.runner.duration=2m'
+설정은 LoadTestProperties, 결과는 표준 출력
+ */
+@Slf4j
+public class LoadTestApplication {
+
+    public static void main(String[] args) throws InterruptedException {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(QuerydslApplication.class)
+                .profiles("bench")
+                .web(WebApplicationType.NONE)
+                .run(args)) {
+            LoadTestProperties properties = Binder.get(context.getEnvironment())
+                    .bind("loadtest", LoadTestProperties.class)
+                    .orElseGet(LoadTestProperties::new);
+            TransactionTemplate tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+            SyntheticDataGenerator generator = new SyntheticDataGenerator(
+                    context.getBean(EntityManager.class), context.getBean(JdbcTemplate.class), tx);
+            SyntheticDataGenerator.Dataset dataset = generator.generate(properties.getGenerator());
+            log.info("largest team has {} members", dataset.largestTeamSize());
+
+            if (properties.getGenerator().isRebuildDerived()) {
+                rebuildDerived(context);
+            }
+
+            LoadTestRunner runner = new LoadTestRunner(context.getBean(MemberRepository.class), tx,
+                    properties.getRunner(), properties.getGenerator(), dataset);
+            runner.run().print(System.out);
+        }
+    }
+
+    private static void rebuildDerived(ConfigurableApplicationContext context) {
+        long started = System.nanoTime();
+        context.getBean(MemberUsernameIndex.class).rebuild();
+        context.getBean(TeamStatisticsUpdater.class).rebuild();
+        if (context.getBean(ReadModelProperties.class).isEnabled()) {
+            context.getBean(MemberTeamViewProjector.class).rebuild();
+        }
+        log.info("rebuilt derived data in {} ms", (System.nanoTime() - started) / 1_000_000);
+    }
+}
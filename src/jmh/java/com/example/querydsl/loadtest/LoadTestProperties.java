@@ -0,0 +1,85 @@
+package com.example.querydsl.loadtest;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+// loadtest.* 설정 (실행 인자로 덮어씀, 예: --loadtest.generator.members=1000000 --loadtest.runner.clients=16)
+@Getter
+@Setter
+public class LoadTestProperties {
+    private Generator generator = new Generator();
+    private Runner runner = new Runner();
+
+    @Getter
+    @Setter
+    public static class Generator {
+        private int teams = 1_000;
+        private int members = 100_000;
+        // 팀 크기 치우침 - k 번째 팀에 들어갈 확률이 1 / k^teamSkew 에 비례 (zipf, 0 이면 균등)
+        private double teamSkew = 1.0;
+        // 팀 없는 회원 비율
+        private double noTeamRatio = 0.05;
+        private AgeDistribution ageDistribution = AgeDistribution.NORMAL;
+        // NORMAL 은 평균, 표준편차로 뽑은 뒤 [ageMin, ageMax] 로 자름, UNIFORM 은 [ageMin, ageMax]
+        private double ageMean = 35;
+        private double ageStddev = 12;
+        private int ageMin = 0;
+        private int ageMax = 99;
+        private long seed = 42;
+        // jdbc batch insert 한 번에 넣을 행 수 (트랜잭션 하나)
+        private int batchSize = 5_000;
+        // 적재 후 파생 데이터(username 색인, 팀 통계, 조회 모델)를 다시 만듦
+        private boolean rebuildDerived = true;
+    }
+
+    @Getter
+    @Setter
+    public static class Runner {
+        // 동시에 요청을 보내는 클라이언트(스레드) 수, hikari maximum-pool-size 보다 크면 커넥션 대기도 지연에 포함됨
+        private int clients = 8;
+        // 측정 전 워밍업 (jit, 캐시), 결과에서 제외
+        private Duration warmup = Duration.ofSeconds(10);
+        private Duration duration = Duration.ofSeconds(60);
+        // 연산별 비중
+        private Map<Operation, Integer> mix = defaultMix();
+        private int pageSize = 20;
+        // 벌크 연산 하나가 건드리는 id 범위, upsert 한 번의 행 수
+        private int bulkIdRange = 200;
+        private int upsertRows = 50;
+        private long seed = 7;
+
+        private static Map<Operation, Integer> defaultMix() {
+            Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+            mix.put(Operation.SEARCH, 30);
+            mix.put(Operation.TEMPLATE, 20);
+            mix.put(Operation.PAGE, 25);
+            mix.put(Operation.CURSOR, 15);
+            mix.put(Operation.BULK_ADD_AGE, 5);
+            mix.put(Operation.UPSERT, 5);
+            return mix;
+        }
+    }
+
+    public enum AgeDistribution {
+        NORMAL, UNIFORM
+    }
+
+    public enum Operation {
+        // searchByWhere - username 또는 팀 이름(+ 나이 범위)
+        SEARCH,
+        // searchByTemplate - SEARCH 와 같은 조건
+        TEMPLATE,
+        // searchPageByWhere - 나이 범위 또는 팀 이름, 앞쪽 페이지 중 하나
+        PAGE,
+        // searchByCursor - 첫 페이지와 다음 페이지
+        CURSOR,
+        // bulkAddAge - 임의의 id 범위, 트랜잭션 하나
+        BULK_ADD_AGE,
+        // upsertAll - 절반은 있는 회원, 절반은 새 회원
+        UPSERT
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.querydsl.loadtest;
+
+import com.example.querydsl.dto.CursorSlice;
+import com.example.querydsl.dto.MemberCursorSort;
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.dto.MemberTeamDto;
+import com.example.querydsl.dto.MemberUpsertDto;
+import com.example.querydsl.loadtest.LoadTestProperties.Operation;
+import com.example.querydsl.repository.MemberRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+MemberRepository 에 동시 요청을 보내고 연산별 처리량, 지연 시간 백분위를 측정
+- 클라이언트마다 스레드 하나, 응답을 받자마자 다음 요청 (closed loop, 대기 시간 없음)
+  -> 처리량이 한계에 다다르면 지연 시간이 아니라 처리량이 멈춤, 지연은 요청 하나의 응답 시간
+- 연산은 mix 비중대로 무작위 선택, 팀은 데이터 생성과 같은 zipf 분포 (큰 팀이 더 자주 조회됨)
+- 워밍업 동안의 요청은 기록하지 않음
+ */
+@Slf4j
+public class LoadTestRunner {
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate tx;
+    private final LoadTestProperties.Runner options;
+    private final SyntheticDataGenerator.Dataset dataset;
+    private final double[] teamCumulative;
+    private final int[] mixCumulative;
+    private final long minMemberId;
+    private final long maxMemberId;
+    // upsert 로 새로 만드는 회원 이름 (클라이언트끼리 겹치지 않도록)
+    private final AtomicLong upsertSequence = new AtomicLong();
+
+    public LoadTestRunner(MemberRepository memberRepository, TransactionTemplate tx,
+                          LoadTestProperties.Runner options, LoadTestProperties.Generator generator,
+                          SyntheticDataGenerator.Dataset dataset) {
+        this.memberRepository = memberRepository;
+        this.tx = tx;
+        this.options = options;
+        this.dataset = dataset;
+        this.teamCumulative = SyntheticDataGenerator.zipf(dataset.getTeams(), generator.getTeamSkew());
+
+        this.mixCumulative = new int[OPERATIONS.length];
+        int sum = 0;
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            sum += options.getMix().getOrDefault(OPERATIONS[i], 0);
+            mixCumulative[i] = sum;
+        }
+        if (sum <= 0) {
+            throw new IllegalArgumentException("loadtest.runner.mix 의 비중 합이 0입니다");
+        }
+
+        long[] range = memberRepository.findIdRange(new MemberSearchCondition());
+        if (range == null) {
+            throw new IllegalStateException("회원 데이터가 없습니다");
+        }
+        this.minMemberId = range[0];
+        this.maxMemberId = range[1];
+    }
+
+    public Report run() throws InterruptedException {
+        long warmupEnd = System.nanoTime() + options.getWarmup().toNanos();
+        long end = warmupEnd + options.getDuration().toNanos();
+
+        List<Map<Operation, Latencies>> perClient = new ArrayList<>();
+        ExecutorService clients = Executors.newFixedThreadPool(options.getClients());
+        CountDownLatch done = new CountDownLatch(options.getClients());
+        for (int c = 0; c < options.getClients(); c++) {
+            Map<Operation, Latencies> latencies = new EnumMap<>(Operation.class);
+            for (Operation operation : OPERATIONS) {
+                latencies.put(operation, new Latencies());
+            }
+            perClient.add(latencies);
+            Random random = new Random(options.getSeed() + c);
+            clients.execute(() -> {
+                try {
+                    runClient(random, latencies, warmupEnd, end);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        log.info("{} clients, warmup {}, duration {}", options.getClients(), options.getWarmup(), options.getDuration());
+        done.await();
+        clients.shutdown();
+        clients.awaitTermination(1, TimeUnit.MINUTES);
+
+        Map<Operation, Latencies> merged = new EnumMap<>(Operation.class);
+        for (Operation operation : OPERATIONS) {
+            Latencies total = new Latencies();
+            for (Map<Operation, Latencies> latencies : perClient) {
+                total.addAll(latencies.get(operation));
+            }
+            total.sort();
+            merged.put(operation, total);
+        }
+        return new Report(merged, options.getDuration().toNanos(), options.getClients());
+    }
+
+    private void runClient(Random random, Map<Operation, Latencies> latencies, long warmupEnd, long end) {
+        while (true) {
+            Operation operation = nextOperation(random);
+            long started = System.nanoTime();
+            if (started >= end) {
+                return;
+            }
+            boolean ok = true;
+            try {
+                execute(operation, random);
+            } catch (RuntimeException e) {
+                ok = false;
+                log.debug("{} failed", operation, e);
+            }
+            long elapsed = System.nanoTime() - started;
+            if (started >= warmupEnd) {
+                if (ok) {
+                    latencies.get(operation).record(elapsed);
+                } else {
+                    latencies.get(operation).error();
+                }
+            }
+        }
+    }
+
+    private Operation nextOperation(Random random) {
+        int r = random.nextInt(mixCumulative[mixCumulative.length - 1]);
+        for (int i = 0; i < mixCumulative.length; i++) {
+            if (r < mixCumulative[i]) {
+                return OPERATIONS[i];
+            }
+        }
+        return OPERATIONS[OPERATIONS.length - 1];
+    }
+
+    private void execute(Operation operation, Random random) {
+        switch (operation) {
+            case SEARCH:
+                memberRepository.searchByWhere(searchCondition(random));
+                break;
+            case TEMPLATE:
+                memberRepository.searchByTemplate(searchCondition(random));
+                break;
+            case PAGE:
+                memberRepository.searchPageByWhere(pageCondition(random),
+                        PageRequest.of(random.nextInt(10), options.getPageSize(), Sort.by("age")));
+                break;
+            case CURSOR: {
+                MemberSearchCondition condition = pageCondition(random);
+                CursorSlice<MemberTeamDto> first = memberRepository.searchByCursor(
+                        condition, MemberCursorSort.AGE_ASC, null, options.getPageSize());
+                if (first.hasNext()) {
+                    memberRepository.searchByCursor(condition, MemberCursorSort.AGE_ASC,
+                            first.getNextCursor(), options.getPageSize());
+                }
+                break;
+            }
+            case BULK_ADD_AGE: {
+                long from = randomMemberId(random);
+                tx.executeWithoutResult(status -> memberRepository.bulkAddAge(
+                        new MemberSearchCondition(), random.nextBoolean() ? 1 : -1, from, from + options.getBulkIdRange()));
+                break;
+            }
+            case UPSERT:
+                memberRepository.upsertAll(upsertRows(random));
+                break;
+        }
+    }
+
+    // 절반은 username 하나, 절반은 팀 이름(+ 나이 범위)
+    private MemberSearchCondition searchCondition(Random random) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        if (random.nextBoolean()) {
+            condition.setUsername("user" + random.nextInt(dataset.getMembers()));
+        } else {
+            condition.setTeamName(randomTeam(random));
+            if (random.nextBoolean()) {
+                int from = random.nextInt(80);
+                condition.setAgeGoe(from);
+                condition.setAgeLoe(from + 10);
+            }
+        }
+        return condition;
+    }
+
+    // 절반은 팀 이름, 절반은 나이 범위만 (결과가 많은 조건)
+    private MemberSearchCondition pageCondition(Random random) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        if (random.nextBoolean()) {
+            condition.setTeamName(randomTeam(random));
+        } else {
+            int from = random.nextInt(80);
+            condition.setAgeGoe(from);
+            condition.setAgeLoe(from + 5);
+        }
+        return condition;
+    }
+
+    private List<MemberUpsertDto> upsertRows(Random random) {
+        List<MemberUpsertDto> rows = new ArrayList<>(options.getUpsertRows());
+        for (int i = 0; i < options.getUpsertRows(); i++) {
+            String username = i % 2 == 0
+                    ? "user" + random.nextInt(dataset.getMembers())
+                    : "upsert" + upsertSequence.getAndIncrement();
+            rows.add(new MemberUpsertDto(username, random.nextInt(100), null));
+        }
+        return rows;
+    }
+
+    private String randomTeam(Random random) {
+        return "team" + SyntheticDataGenerator.pick(teamCumulative, random);
+    }
+
+    private long randomMemberId(Random random) {
+        long span = Math.max(1, maxMemberId - minMemberId - options.getBulkIdRange());
+        return minMemberId + (long) (random.nextDouble() * span);
+    }
+
+    public static class Report {
+        private final Map<Operation, Latencies> latencies;
+        private final long durationNanos;
+        private final int clients;
+
+        Report(Map<Operation, Latencies> latencies, long durationNanos, int clients) {
+            this.latencies = latencies;
+            this.durationNanos = durationNanos;
+            this.clients = clients;
+        }
+
+        public long totalCount() {
+            long total = 0;
+            for (Latencies value : latencies.values()) {
+                total += value.count();
+            }
+            return total;
+        }
+
+        public void print(PrintStream out) {
+            double seconds = durationNanos / 1e9;
+            out.printf("clients=%d, duration=%.0fs, total=%d ops (%.1f ops/s)%n",
+                    clients, seconds, totalCount(), totalCount() / seconds);
+            out.printf("%-13s %10s %7s %10s %10s %10s %10s %10s%n",
+                    "operation", "count", "errors", "ops/s", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)");
+            for (Map.Entry<Operation, Latencies> entry : latencies.entrySet()) {
+                Latencies value = entry.getValue();
+                if (value.count() == 0 && value.errors() == 0) {
+                    continue;
+                }
+                out.printf("%-13s %10d %7d %10.1f %10.3f %10.3f %10.3f %10.3f%n",
+                        entry.getKey(), value.count(), value.errors(), value.count() / seconds,
+                        millis(value.percentile(0.50)), millis(value.percentile(0.99)),
+                        millis(value.percentile(0.999)), millis(value.max()));
+            }
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1e6;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.querydsl.loadtest;
+
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/*
+부하 테스트용 데이터 생성
+- 팀 N 개, 회원 M 명, 팀 크기는 zipf 분포로 치우침 (앞 번호 팀일수록 큼), 나이는 정규/균등 분포
+- jpa 를 거치지 않고 jdbc batch insert 로 적재 (영속성 컨텍스트, 엔티티 이벤트 없음)
+  id 는 엔티티와 같은 시퀀스(pooled)에서 받아서 이후 jpa 로 저장하는 엔티티와 겹치지 않음
+- 엔티티 이벤트를 거치지 않으므로 파생 데이터(username 색인, 팀 통계, 조회 모델)는 적재 후 한 번에 rebuild
+같은 seed 면 같은 데이터 (username 은 user0..user{M-1}, 팀 이름은 team0..team{N-1})
+ */
+@Slf4j
+public class SyntheticDataGenerator {
+    private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+
+    public SyntheticDataGenerator(EntityManager em, JdbcTemplate jdbcTemplate, TransactionTemplate tx) {
+        this.em = em;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = tx;
+    }
+
+    public Dataset generate(LoadTestProperties.Generator options) {
+        Random random = new Random(options.getSeed());
+        long started = System.nanoTime();
+
+        long[] teamIds = insertTeams(options.getTeams(), options.getBatchSize());
+        double[] cumulative = zipf(options.getTeams(), options.getTeamSkew());
+
+        int[] teamSizes = new int[options.getTeams()];
+        for (int from = 0; from < options.getMembers(); from += options.getBatchSize()) {
+            int to = Math.min(from + options.getBatchSize(), options.getMembers());
+            int start = from;
+            tx.executeWithoutResult(status -> {
+                IdentifierGenerator ids = identifierGenerator(Member.class);
+                SharedSessionContractImplementor session = em.unwrap(SharedSessionContractImplementor.class);
+                List<Object[]> rows = new ArrayList<>(to - start);
+                for (int i = start; i < to; i++) {
+                    Long teamId = null;
+                    if (random.nextDouble() >= options.getNoTeamRatio()) {
+                        int team = pick(cumulative, random);
+                        teamSizes[team]++;
+                        teamId = teamIds[team];
+                    }
+                    rows.add(new Object[]{ids.generate(session, null), "user" + i, age(options, random), teamId});
+                }
+                jdbcTemplate.batchUpdate("insert into Member (member_id, username, age, team_id) values (?, ?, ?, ?)",
+                        rows, new int[]{Types.BIGINT, Types.VARCHAR, Types.INTEGER, Types.BIGINT});
+            });
+            if ((to / options.getBatchSize()) % 20 == 0 || to == options.getMembers()) {
+                log.info("members {}/{}", to, options.getMembers());
+            }
+        }
+        log.info("loaded {} teams, {} members in {} ms", options.getTeams(), options.getMembers(),
+                (System.nanoTime() - started) / 1_000_000);
+        return new Dataset(options.getTeams(), options.getMembers(), teamSizes);
+    }
+
+    private long[] insertTeams(int teams, int batchSize) {
+        long[] teamIds = new long[teams];
+        for (int from = 0; from < teams; from += batchSize) {
+            int to = Math.min(from + batchSize, teams);
+            int start = from;
+            tx.executeWithoutResult(status -> {
+                IdentifierGenerator ids = identifierGenerator(Team.class);
+                SharedSessionContractImplementor session = em.unwrap(SharedSessionContractImplementor.class);
+                List<Object[]> rows = new ArrayList<>(to - start);
+                for (int i = start; i < to; i++) {
+                    teamIds[i] = (Long) ids.generate(session, null);
+                    rows.add(new Object[]{teamIds[i], "team" + i});
+                }
+                jdbcTemplate.batchUpdate("insert into Team (id, name) values (?, ?)", rows,
+                        new int[]{Types.BIGINT, Types.VARCHAR});
+            });
+        }
+        return teamIds;
+    }
+
+    private IdentifierGenerator identifierGenerator(Class<?> entityClass) {
+        return em.unwrap(SharedSessionContractImplementor.class).getFactory().getMetamodel()
+                .entityPersister(entityClass).getIdentifierGenerator();
+    }
+
+    // k 번째 팀까지의 누적 확률
+    static double[] zipf(int n, double skew) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, skew);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= sum;
+        }
+        return cumulative;
+    }
+
+    // 누적 확률에서 이분 탐색
+    static int pick(double[] cumulative, Random random) {
+        double r = random.nextDouble();
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] < r) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int age(LoadTestProperties.Generator options, Random random) {
+        if (options.getAgeDistribution() == LoadTestProperties.AgeDistribution.UNIFORM) {
+            return options.getAgeMin() + random.nextInt(options.getAgeMax() - options.getAgeMin() + 1);
+        }
+        long age = Math.round(options.getAgeMean() + random.nextGaussian() * options.getAgeStddev());
+        return (int) Math.max(options.getAgeMin(), Math.min(options.getAgeMax(), age));
+    }
+
+    // 생성한 데이터 요약 (부하 테스트에서 조건을 고를 때 사용)
+    @Getter
+    public static class Dataset {
+        private final int teams;
+        private final int members;
+        // 팀 번호별 회원 수
+        private final int[] teamSizes;
+
+        Dataset(int teams, int members, int[] teamSizes) {
+            this.teams = teams;
+            this.members = members;
+            this.teamSizes = teamSizes;
+        }
+
+        public int largestTeamSize() {
+            int max = 0;
+            for (int size : teamSizes) {
+                max = Math.max(max, size);
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.querydsl.cache;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.dto.MemberTeamDto;
+import com.example.querydsl.event.EntityChangesEvent;
+import com.example.querydsl.event.MemberBulkChangedEvent;
+import com.example.querydsl.repository.MemberRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+MemberRepository.searchByWhere 앞단의 검색 결과 캐시
+- 검색 조건(MemberSearchCondition)을 키로 사용, 빈 문자열 조건은 null 과 같은 조건으로 취급
+- maxSize 를 넘으면 LRU 로 제거, ttl 이 지나면 다시 조회
+- 같은 조건이 동시에 캐시 미스가 나도 db 조회는 한 번만 (나머지는 그 결과를 기다림)
+- 회원, 팀이 바뀌거나 벌크 연산이 실행되면 커밋 이후 전체 무효화 (어떤 조건의 결과가 바뀌었는지 알 수 없으므로)
+반환하는 리스트는 여러 호출자가 공유하므로 수정할 수 없음
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "querydsl.search-cache", name = "enabled", havingValue = "true")
+public class MemberSearchCache {
+    private final MemberRepository memberRepository;
+    private final long ttlNanos;
+    private final long staleNanos;
+
+    private final Map<MemberSearchCondition, Entry> entries;
+    private final Map<MemberSearchCondition, CompletableFuture<List<MemberTeamDto>>> loading = new ConcurrentHashMap<>();
+    // 무효화 전에 시작한 조회 결과가 무효화 이후에 캐시에 들어가지 않도록 세대 번호로 확인
+    private final AtomicLong generation = new AtomicLong();
+    // stale-while-revalidate 용 백그라운드 조회, 큐가 차면 이번 갱신은 건너뜀 (다음 요청이 다시 시도)
+    private final ThreadPoolExecutor refresher = new ThreadPoolExecutor(1, 2, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(100), new ThreadPoolExecutor.DiscardPolicy());
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter staleHits;
+    private final Counter invalidations;
+
+    public MemberSearchCache(MemberRepository memberRepository, MemberSearchCacheProperties properties,
+                             MeterRegistry registry) {
+        this.memberRepository = memberRepository;
+        this.ttlNanos = properties.getTtl().toNanos();
+        this.staleNanos = properties.getStaleWhileRevalidate().toNanos();
+
+        int maxSize = properties.getMaxSize();
+        // accessOrder = true -> 조회할 때마다 맨 뒤로 이동, 가장 앞이 가장 오래 사용하지 않은 항목
+        this.entries = new LinkedHashMap<MemberSearchCondition, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<MemberSearchCondition, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+
+        this.hits = Counter.builder("member.search.cache.requests").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("member.search.cache.requests").tag("result", "miss").register(registry);
+        this.staleHits = Counter.builder("member.search.cache.requests").tag("result", "stale").register(registry);
+        this.invalidations = Counter.builder("member.search.cache.invalidations").register(registry);
+        registry.gauge("member.search.cache.size", this, MemberSearchCache::size);
+    }
+
+    public List<MemberTeamDto> searchByWhere(MemberSearchCondition condition) {
+        MemberSearchCondition key = normalize(condition);
+        long now = System.nanoTime();
+
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+
+        if (entry != null) {
+            long age = now - entry.loadedAt;
+            if (age < ttlNanos) {
+                hits.increment();
+                return entry.value;
+            }
+            if (age < ttlNanos + staleNanos) {
+                staleHits.increment();
+                refreshInBackground(key, entry);
+                return entry.value;
+            }
+        }
+
+        misses.increment();
+        return load(key);
+    }
+
+    public void invalidateAll() {
+        // load 의 put 과 같은 락 안에서 올려야 put 직전에 끼어든 무효화를 놓치지 않음
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+        invalidations.increment();
+    }
+
+    // 커밋된 변경만 반영, 트랜잭션 밖에서 발행되면 바로 실행
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangesEvent event) {
+        invalidateAll();
+    }
+
+    // 벌크 연산은 chunk 트랜잭션마다 발행되고 커밋된 chunk 마다 무효화
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMemberBulkChanged(MemberBulkChangedEvent event) {
+        invalidateAll();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private List<MemberTeamDto> load(MemberSearchCondition key) {
+        CompletableFuture<List<MemberTeamDto>> mine = new CompletableFuture<>();
+        CompletableFuture<List<MemberTeamDto>> inFlight = loading.putIfAbsent(key, mine);
+        if (inFlight != null) {
+            return inFlight.join();
+        }
+
+        try {
+            long loadedGeneration = generation.get();
+            long loadedAt = System.nanoTime();
+            List<MemberTeamDto> value = Collections.unmodifiableList(memberRepository.searchByWhere(key));
+            // 조회하는 동안 무효화되었으면 저장하지 않음 (확인과 저장을 무효화와 같은 락 안에서)
+            synchronized (entries) {
+                if (generation.get() == loadedGeneration) {
+                    entries.put(key, new Entry(value, loadedAt));
+                }
+            }
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, mine);
+        }
+    }
+
+    // 같은 키는 한 번만 갱신 (thundering herd 방지)
+    private void refreshInBackground(MemberSearchCondition key, Entry entry) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        refresher.execute(() -> {
+            try {
+                load(key);
+            } catch (RuntimeException e) {
+                log.warn("member search cache refresh failed: {}", key, e);
+            } finally {
+                entry.refreshing.set(false);
+            }
+        });
+    }
+
+    // 캐시 키로 쓰기 위해 복사본을 만들고, 리포지토리에서 조건이 없는 것으로 취급하는 빈 문자열은 null 로 통일
+    private MemberSearchCondition normalize(MemberSearchCondition condition) {
+        MemberSearchCondition key = new MemberSearchCondition();
+        key.setUsername(StringUtils.hasText(condition.getUsername()) ? condition.getUsername() : null);
+        key.setTeamName(StringUtils.hasText(condition.getTeamName()) ? condition.getTeamName() : null);
+        key.setAgeGoe(condition.getAgeGoe());
+        key.setAgeLoe(condition.getAgeLoe());
+        return key;
+    }
+
+    private static class Entry {
+        private final List<MemberTeamDto> value;
+        private final long loadedAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Entry(List<MemberTeamDto> value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.querydsl.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "querydsl.search-cache")
+public class MemberSearchCacheProperties {
+    private boolean enabled = false;
+    // 저장할 검색 조건 수, 넘으면 가장 오래 사용하지 않은 조건부터 제거 (LRU)
+    private int maxSize = 1_000;
+    // 이 시간 동안은 캐시된 결과를 그대로 반환
+    private Duration ttl = Duration.ofSeconds(30);
+    // ttl 이 지난 뒤 이 시간 동안은 이전 결과를 반환하면서 백그라운드에서 한 번만 다시 조회
+    // 0 이면 사용하지 않음 (ttl 이 지나면 바로 다시 조회)
+    private Duration staleWhileRevalidate = Duration.ZERO;
+}
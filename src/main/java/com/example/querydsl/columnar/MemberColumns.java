@@ -0,0 +1,244 @@
+package com.example.querydsl.columnar;
+
+import com.example.querydsl.dto.TeamStatisticsDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/*
+회원 조회 결과를 열(column) 단위 기본형 배열로 저장
+- 행마다 객체(MemberTeamDto, Tuple)와 박싱된 Long, Integer 를 만들지 않음
+- 팀 이름은 사전 인코딩 : 행에는 int 코드만, 팀 id / 이름은 팀마다 한 번만 저장
+- 행 단위로 읽을 때는 Row 뷰 하나를 재사용 (iterator 가 돌려주는 Row 를 다음 행 이후까지 들고 있으면 안 됨)
+username 은 행마다 String 이라 저장하지 않음, 필요하면 memberId 로 다시 조회
+ */
+public final class MemberColumns implements Iterable<MemberColumns.Row> {
+    // 팀이 없는 회원의 팀 코드
+    public static final int NO_TEAM = -1;
+
+    private long[] memberIds;
+    private int[] ages;
+    private int[] teamCodes;
+    private int size;
+
+    // 팀 코드 -> 팀 id, 이름 (처음 나온 순서대로 코드 부여)
+    private long[] teamIds = new long[16];
+    private String[] teamNames = new String[16];
+    private int teamCount;
+
+    MemberColumns(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 16);
+        memberIds = new long[capacity];
+        ages = new int[capacity];
+        teamCodes = new int[capacity];
+    }
+
+    void add(long memberId, int age, int teamCode) {
+        if (size == memberIds.length) {
+            int capacity = size + (size >> 1);
+            memberIds = Arrays.copyOf(memberIds, capacity);
+            ages = Arrays.copyOf(ages, capacity);
+            teamCodes = Arrays.copyOf(teamCodes, capacity);
+        }
+        memberIds[size] = memberId;
+        ages[size] = age;
+        teamCodes[size] = teamCode;
+        size++;
+    }
+
+    // 새 팀 코드
+    int addTeam(long teamId, String teamName) {
+        if (teamCount == teamIds.length) {
+            teamIds = Arrays.copyOf(teamIds, teamCount * 2);
+            teamNames = Arrays.copyOf(teamNames, teamCount * 2);
+        }
+        teamIds[teamCount] = teamId;
+        teamNames[teamCount] = teamName;
+        return teamCount++;
+    }
+
+    // 결과셋을 다 읽은 뒤 찾은 팀 이름
+    void setTeamName(int code, String teamName) {
+        checkCode(code);
+        teamNames[code] = teamName;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long memberId(int row) {
+        checkRow(row);
+        return memberIds[row];
+    }
+
+    public int age(int row) {
+        checkRow(row);
+        return ages[row];
+    }
+
+    // 팀이 없으면 NO_TEAM
+    public int teamCode(int row) {
+        checkRow(row);
+        return teamCodes[row];
+    }
+
+    public boolean hasTeam(int row) {
+        return teamCode(row) != NO_TEAM;
+    }
+
+    // 팀이 없으면 0
+    public long teamId(int row) {
+        int code = teamCode(row);
+        return code == NO_TEAM ? 0 : teamIds[code];
+    }
+
+    // 팀이 없으면 null
+    public String teamName(int row) {
+        int code = teamCode(row);
+        return code == NO_TEAM ? null : teamNames[code];
+    }
+
+    // 사전에 있는 팀 수 (결과에 나온 팀만)
+    public int teamCount() {
+        return teamCount;
+    }
+
+    public long teamIdOfCode(int code) {
+        checkCode(code);
+        return teamIds[code];
+    }
+
+    public String teamNameOfCode(int code) {
+        checkCode(code);
+        return teamNames[code];
+    }
+
+    public long ageSum() {
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += ages[i];
+        }
+        return sum;
+    }
+
+    // 행이 없으면 NaN
+    public double avgAge() {
+        return size == 0 ? Double.NaN : (double) ageSum() / size;
+    }
+
+    // 팀 코드별 회원 수
+    public long[] countByTeam() {
+        long[] counts = new long[teamCount];
+        for (int i = 0; i < size; i++) {
+            if (teamCodes[i] != NO_TEAM) {
+                counts[teamCodes[i]]++;
+            }
+        }
+        return counts;
+    }
+
+    // 팀별 나이 통계를 한 번 훑어서 계산, 팀 없는 회원은 teamId, teamName 이 null 인 항목 (맨 뒤)
+    public List<TeamStatisticsDto> statisticsByTeam() {
+        // 마지막 칸이 팀 없는 회원
+        int buckets = teamCount + 1;
+        long[] counts = new long[buckets];
+        long[] sums = new long[buckets];
+        int[] mins = new int[buckets];
+        int[] maxs = new int[buckets];
+        Arrays.fill(mins, Integer.MAX_VALUE);
+        Arrays.fill(maxs, Integer.MIN_VALUE);
+
+        for (int i = 0; i < size; i++) {
+            int bucket = teamCodes[i] == NO_TEAM ? teamCount : teamCodes[i];
+            int age = ages[i];
+            counts[bucket]++;
+            sums[bucket] += age;
+            mins[bucket] = Math.min(mins[bucket], age);
+            maxs[bucket] = Math.max(maxs[bucket], age);
+        }
+
+        List<TeamStatisticsDto> result = new ArrayList<>(buckets);
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            if (counts[bucket] == 0) {
+                continue;
+            }
+            boolean noTeam = bucket == teamCount;
+            result.add(new TeamStatisticsDto(
+                    noTeam ? null : teamIds[bucket],
+                    noTeam ? null : teamNames[bucket],
+                    counts[bucket], sums[bucket], mins[bucket], maxs[bucket]));
+        }
+        return result;
+    }
+
+    @Override
+    public Iterator<Row> iterator() {
+        Row row = new Row();
+        return new Iterator<Row>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public Row next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                row.index = next++;
+                return row;
+            }
+        };
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row " + row + ", size " + size);
+        }
+    }
+
+    private void checkCode(int code) {
+        if (code < 0 || code >= teamCount) {
+            throw new IndexOutOfBoundsException("team code " + code + ", team count " + teamCount);
+        }
+    }
+
+    // 현재 위치의 행을 읽는 뷰 (iterator 가 위치만 바꿔가며 재사용)
+    public final class Row {
+        private int index;
+
+        public int index() {
+            return index;
+        }
+
+        public long memberId() {
+            return memberIds[index];
+        }
+
+        public int age() {
+            return ages[index];
+        }
+
+        public int teamCode() {
+            return teamCodes[index];
+        }
+
+        public boolean hasTeam() {
+            return teamCodes[index] != NO_TEAM;
+        }
+
+        public long teamId() {
+            return MemberColumns.this.teamId(index);
+        }
+
+        public String teamName() {
+            return MemberColumns.this.teamName(index);
+        }
+    }
+}
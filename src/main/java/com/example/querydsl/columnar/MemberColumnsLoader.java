@@ -0,0 +1,202 @@
+package com.example.querydsl.columnar;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.repository.MemberRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+회원 검색 결과를 jdbc 결과셋에서 바로 MemberColumns 로 채움 (분석용 대량 조회)
+- 결과셋에서 getLong, getInt 로 기본형만 읽음 -> 행마다 만드는 객체 없음 (배열이 모자랄 때 늘리는 것만)
+- 팀 이름은 행마다 읽지 않고 team_id 로 사전 코드를 찾음, 팀 이름은 먼저 팀 테이블에서 한 번에 읽어 둠
+- 같은 읽기 전용 트랜잭션에서 팀, 회원을 읽음 (MySQL 은 같은 스냅샷)
+  그 사이 추가된 팀이 나오면 코드만 잡아 두고 결과셋을 닫은 뒤 그 팀만 따로 조회
+  (MySQL 스트리밍 결과셋이 열려 있는 동안은 같은 커넥션에서 다른 쿼리를 실행할 수 없음)
+- MySQL 은 스트리밍 결과셋 사용 (MemberExporter 와 같음)
+조건은 MemberRepository.searchByWhere 와 같음, 행 순서는 보장하지 않음
+ */
+@Component
+public class MemberColumnsLoader {
+    // MySQL 외의 db 에서 한 번에 가져올 행 수
+    private static final int DEFAULT_FETCH_SIZE = 1000;
+    private static final int DEFAULT_INITIAL_CAPACITY = 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readTx;
+
+    public MemberColumnsLoader(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+    }
+
+    public MemberColumns load(MemberSearchCondition condition) {
+        return load(condition, DEFAULT_INITIAL_CAPACITY);
+    }
+
+    // 행 수를 대략 알면 expectedRows 로 배열을 한 번에 잡아서 복사를 줄임
+    public MemberColumns load(MemberSearchCondition condition, int expectedRows) {
+        List<Object> params = new ArrayList<>();
+        String sql = searchSql(condition, params);
+
+        return readTx.execute(status -> {
+            Map<Long, String> teamNames = teamNames(condition);
+            MemberColumns columns = new MemberColumns(expectedRows);
+            TeamCodes codes = new TeamCodes();
+            // 미리 읽은 팀 이름에 없는 팀의 코드
+            List<Integer> unknownTeams = new ArrayList<>();
+
+            jdbcTemplate.execute(
+                    (PreparedStatementCreator) con -> {
+                        PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                        boolean mysql = "MySQL".equals(con.getMetaData().getDatabaseProductName());
+                        ps.setFetchSize(mysql ? MemberRepository.MYSQL_STREAMING_FETCH_SIZE : DEFAULT_FETCH_SIZE);
+                        for (int i = 0; i < params.size(); i++) {
+                            ps.setObject(i + 1, params.get(i));
+                        }
+                        return ps;
+                    },
+                    (PreparedStatement ps) -> {
+                        try (ResultSet rs = ps.executeQuery()) {
+                            while (rs.next()) {
+                                long memberId = rs.getLong(1);
+                                int age = rs.getInt(2);
+                                long teamId = rs.getLong(3);
+                                int code = MemberColumns.NO_TEAM;
+                                if (!rs.wasNull()) {
+                                    code = codes.get(teamId);
+                                    if (code == MemberColumns.NO_TEAM) {
+                                        code = columns.addTeam(teamId, teamNames.get(teamId));
+                                        codes.put(teamId, code);
+                                        if (!teamNames.containsKey(teamId)) {
+                                            unknownTeams.add(code);
+                                        }
+                                    }
+                                }
+                                columns.add(memberId, age, code);
+                            }
+                        }
+                        return null;
+                    });
+
+            for (int code : unknownTeams) {
+                columns.setTeamName(code, teamName(columns.teamIdOfCode(code)));
+            }
+            return columns;
+        });
+    }
+
+    // 팀 이름 조건이 있으면 그 팀만
+    private Map<Long, String> teamNames(MemberSearchCondition condition) {
+        Map<Long, String> teamNames = new HashMap<>();
+        if (StringUtils.hasText(condition.getTeamName())) {
+            jdbcTemplate.query("select id, name from Team where name = ?",
+                    rs -> {
+                        teamNames.put(rs.getLong(1), rs.getString(2));
+                    }, condition.getTeamName());
+        } else {
+            jdbcTemplate.query("select id, name from Team", rs -> {
+                teamNames.put(rs.getLong(1), rs.getString(2));
+            });
+        }
+        return teamNames;
+    }
+
+    private String teamName(long teamId) {
+        List<String> found = jdbcTemplate.queryForList("select name from Team where id = ?", String.class, teamId);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    private String searchSql(MemberSearchCondition condition, List<Object> params) {
+        StringBuilder sql = new StringBuilder("select m.member_id, m.age, m.team_id from Member m");
+        // 팀 이름 조건이 있을 때만 팀 조인 (MemberRepository.joinTeam 과 같은 이유로 inner join)
+        if (StringUtils.hasText(condition.getTeamName())) {
+            sql.append(" join Team t on t.id = m.team_id");
+        }
+        sql.append(" where 1 = 1");
+
+        if (StringUtils.hasText(condition.getUsername())) {
+            sql.append(" and m.username = ?");
+            params.add(condition.getUsername());
+        }
+        if (StringUtils.hasText(condition.getTeamName())) {
+            sql.append(" and t.name = ?");
+            params.add(condition.getTeamName());
+        }
+        if (condition.getAgeGoe() != null) {
+            sql.append(" and m.age >= ?");
+            params.add(condition.getAgeGoe());
+        }
+        if (condition.getAgeLoe() != null) {
+            sql.append(" and m.age <= ?");
+            params.add(condition.getAgeLoe());
+        }
+        return sql.toString();
+    }
+
+    // team_id -> 사전 코드, 박싱 없이 찾도록 long 키 open addressing (선형 탐색)
+    private static class TeamCodes {
+        private long[] keys = new long[64];
+        private int[] values = new int[64];
+        private boolean[] used = new boolean[64];
+        private int count;
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int i = slot(key, mask); used[i]; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+            return MemberColumns.NO_TEAM;
+        }
+
+        void put(long key, int value) {
+            if ((count + 1) * 2 > keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int i = slot(key, mask);
+            while (used[i] && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (!used[i]) {
+                count++;
+            }
+            used[i] = true;
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            boolean[] oldUsed = used;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            used = new boolean[oldKeys.length * 2];
+            count = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int slot(long key, int mask) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.querydsl.config;
+
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncRepositoryConfig {
+
+    /*
+    비동기 리포지토리 호출(MemberAsyncService) 전용 스레드풀
+    스레드 하나가 커넥션 하나를 쓰므로 커넥션 풀 크기만큼만 스레드를 만듦 (더 만들어도 커넥션을 기다리기만 함)
+    큐가 가득 차면 작업을 거절해서 (TaskRejectedException) 호출하는 쪽이 바로 실패 응답을 줄 수 있게 함
+     */
+    public static final String REPOSITORY_EXECUTOR = "repositoryExecutor";
+
+    /*
+    Executor 빈이 하나라도 있으면 스프링 부트가 기본 스레드풀(applicationTaskExecutor)을 만들지 않고
+    @Async 가 작업마다 스레드를 새로 만드는 SimpleAsyncTaskExecutor 로 실행됨
+    -> 부트 설정(spring.task.execution.*)으로 기본 스레드풀을 직접 등록
+    타입으로 주입받는 곳, @Async 도 리포지토리 전용 풀이 아니라 이 풀을 사용 (mvc 비동기 요청은 ExportConfig 의 풀)
+     */
+    @Lazy
+    @Primary
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(name = REPOSITORY_EXECUTOR)
+    public ThreadPoolTaskExecutor repositoryExecutor(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${querydsl.async.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("repository-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setTaskDecorator(contextPropagatingDecorator());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    // 호출한 스레드의 로그 MDC, Locale 을 작업 스레드로 복사
+    // 트랜잭션은 스레드에 묶여 있으므로 넘어가지 않음 -> 작업마다 새 트랜잭션
+    private TaskDecorator contextPropagatingDecorator() {
+        return task -> {
+            Map<String, String> mdc = MDC.getCopyOfContextMap();
+            LocaleContext locale = LocaleContextHolder.getLocaleContext();
+            return () -> {
+                Map<String, String> previousMdc = MDC.getCopyOfContextMap();
+                if (mdc != null) {
+                    MDC.setContextMap(mdc);
+                }
+                LocaleContextHolder.setLocaleContext(locale);
+                try {
+                    task.run();
+                } finally {
+                    LocaleContextHolder.resetLocaleContext();
+                    if (previousMdc != null) {
+                        MDC.setContextMap(previousMdc);
+                    } else {
+                        MDC.clear();
+                    }
+                }
+            };
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.querydsl.config;
+
+import com.example.querydsl.export.ExportProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/*
+mvc 비동기 요청(회원 내보내기 WebAsyncTask) 실행 스레드풀
+내보내기 하나가 끝날 때까지 스레드와 커넥션을 잡고 있으므로 max-concurrent 개로 제한하고
+넘치는 요청은 거절 (TaskRejectedException -> MemberExportController 가 503)
+시간 제한은 전역 spring.mvc.async.request-timeout 이 아니라 내보내기 요청에만 적용 (querydsl.export.timeout)
+ */
+@Configuration
+@EnableConfigurationProperties(ExportProperties.class)
+public class ExportConfig implements WebMvcConfigurer {
+    public static final String EXPORT_EXECUTOR = "exportExecutor";
+
+    private final ExportProperties properties;
+
+    public ExportConfig(ExportProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean(name = EXPORT_EXECUTOR)
+    public ThreadPoolTaskExecutor exportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getMaxConcurrent());
+        executor.setMaxPoolSize(properties.getMaxConcurrent());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("export-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    // 부트 기본 설정(applicationTaskExecutor)보다 뒤에 적용되어 mvc 비동기 요청은 이 풀을 사용
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(exportExecutor());
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.querydsl.config;
+
+import com.example.querydsl.cache.MemberSearchCacheProperties;
+import com.example.querydsl.loader.BatchLoaderProperties;
+import com.example.querydsl.metrics.QueryMetricsProperties;
+import com.example.querydsl.metrics.RepeatedStatementDetector;
+import com.example.querydsl.metrics.StatementCountingInspector;
+import com.example.querydsl.metrics.TracingJPAQueryFactory;
+import com.example.querydsl.readmodel.ReadModelProperties;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import javax.persistence.EntityManager;
+
+@Configuration
+@EnableConfigurationProperties({
+        QueryMetricsProperties.class,
+        MemberSearchCacheProperties.class,
+        BatchLoaderProperties.class,
+        ReadModelProperties.class
+})
+public class QuerydslConfig {
+
+    // 리포지토리들이 같은 JPAQueryFactory 를 주입받아 사용
+    // 만들어지는 쿼리마다 jpql 을 QueryTrace 에 남김
+    @Bean
+    public JPAQueryFactory jpaQueryFactory(EntityManager em) {
+        return new TracingJPAQueryFactory(em);
+    }
+
+    @Bean
+    public StatementCountingInspector statementCountingInspector(QueryMetricsProperties properties) {
+        return new StatementCountingInspector(new RepeatedStatementDetector(
+                properties.getRepeatedStatementMode(), properties.getRepeatedStatementThreshold()));
+    }
+
+    // 다른 customizer 가 이 inspector 를 감쌀 수 있도록 먼저 적용 (RoutingDataSourceConfig)
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public HibernatePropertiesCustomizer statementInspectorCustomizer(StatementCountingInspector inspector) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+}
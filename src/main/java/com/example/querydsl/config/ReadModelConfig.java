@@ -0,0 +1,30 @@
+package com.example.querydsl.config;
+
+import com.example.querydsl.readmodel.MemberTeamViewProjector;
+import com.example.querydsl.readmodel.ReadModelProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+// querydsl.read-model.enabled 일 때만 outbox relay 를 주기적으로 실행
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "querydsl.read-model", name = "enabled", havingValue = "true")
+public class ReadModelConfig implements SchedulingConfigurer {
+    private final MemberTeamViewProjector projector;
+    private final ReadModelProperties properties;
+
+    public ReadModelConfig(MemberTeamViewProjector projector, ReadModelProperties properties) {
+        this.projector = projector;
+        this.properties = properties;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        long interval = properties.getRelayInterval().toMillis();
+        registrar.addFixedDelayTask(new IntervalTask(projector::relayAll, interval, interval));
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.querydsl.config;
+
+import com.example.querydsl.routing.ReadYourWrites;
+import com.example.querydsl.routing.ReadYourWritesInspector;
+import com.example.querydsl.routing.ReplicaRoutingDataSource;
+import com.example.querydsl.routing.RoutingDataSourceProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(prefix = "querydsl.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties({DataSourceProperties.class, RoutingDataSourceProperties.class})
+public class RoutingDataSourceConfig {
+
+    @Bean
+    public ReadYourWrites readYourWrites(RoutingDataSourceProperties routingProperties) {
+        return new ReadYourWrites(routingProperties.getReadYourWrites());
+    }
+
+    // 쓰기 sql 이 실행된 트랜잭션만 커밋 시각을 기록하도록 기존 inspector(statementInspectorCustomizer)를 감쌈
+    // -> 그 customizer 보다 뒤에 적용
+    @Bean
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public HibernatePropertiesCustomizer readYourWritesInspectorCustomizer(ReadYourWrites readYourWrites) {
+        return properties -> {
+            if (readYourWrites.isEnabled()) {
+                properties.put(AvailableSettings.STATEMENT_INSPECTOR, new ReadYourWritesInspector(
+                        (StatementInspector) properties.get(AvailableSettings.STATEMENT_INSPECTOR), readYourWrites));
+            }
+        };
+    }
+
+    // DataSource 빈이 있으면 DataSourceAutoConfiguration 은 primary 풀을 만들지 않으므로 여기서 직접 생성
+    // p6spy 가 감싸는 DataSource 빈은 이것 하나 (primary, 복제본의 sql 이 모두 로그에 남음)
+    @Bean
+    public DataSource dataSource(DataSourceProperties dataSourceProperties,
+                                 RoutingDataSourceProperties routingProperties,
+                                 ReadYourWrites readYourWrites,
+                                 Environment environment) {
+        HikariDataSource primary = hikari(environment, dataSourceProperties.initializeDataSourceBuilder(), "primary");
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<RoutingDataSourceProperties.Replica> configured = routingProperties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            RoutingDataSourceProperties.Replica replica = configured.get(i);
+            String key = "replica-" + i;
+            replicas.put(key, hikari(environment, dataSourceProperties.initializeDataSourceBuilder()
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword()), key));
+        }
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+                primary, replicas, routingProperties.getStrategy(), readYourWrites);
+        return new RoutingDataSource(routing);
+    }
+
+    private HikariDataSource hikari(Environment environment,
+                                    DataSourceBuilder<?> builder, String poolName) {
+        HikariDataSource dataSource = builder.type(HikariDataSource.class).build();
+        // spring.datasource.hikari 의 풀 설정을 primary, 복제본 모두에 적용
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(poolName);
+        return dataSource;
+    }
+
+    // 트랜잭션 시작 시점이 아니라 첫 쿼리 시점에 커넥션을 얻어야 readOnly 여부로 라우팅할 수 있음
+    // 컨텍스트 종료 시 close 로 primary, 복제본 풀을 모두 닫음
+    static class RoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+        private final ReplicaRoutingDataSource routing;
+
+        RoutingDataSource(ReplicaRoutingDataSource routing) {
+            super(routing);
+            this.routing = routing;
+        }
+
+        @Override
+        public void close() throws Exception {
+            routing.close();
+        }
+    }
+}
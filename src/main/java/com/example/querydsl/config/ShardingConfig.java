@@ -0,0 +1,48 @@
+package com.example.querydsl.config;
+
+import com.example.querydsl.shard.ShardedMemberRepository;
+import com.example.querydsl.shard.ShardingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(prefix = "querydsl.sharding", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    // 샤드 풀은 빈으로 등록하지 않음 (DataSource 빈이 생기면 기본 DataSource 자동 설정이 꺼짐)
+    // 컨텍스트 종료 시 close 로 scatter 스레드와 샤드 풀을 모두 닫음
+    @Bean
+    public ShardedMemberRepository shardedMemberRepository(ShardingProperties properties, Environment environment) {
+        List<DataSource> pools = new ArrayList<>();
+        List<ShardingProperties.Shard> shards = properties.getShards();
+        for (int i = 0; i < shards.size(); i++) {
+            ShardingProperties.Shard shard = shards.get(i);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .build();
+            // spring.datasource.hikari 의 풀 설정을 샤드에도 적용
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+            dataSource.setPoolName("shard-" + i);
+            pools.add(dataSource);
+        }
+
+        ShardedMemberRepository repository = new ShardedMemberRepository(pools);
+        repository.initSchema();
+        return repository;
+    }
+}
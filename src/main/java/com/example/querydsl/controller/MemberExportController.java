@@ -0,0 +1,88 @@
+package com.example.querydsl.controller;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.export.ExportFormat;
+import com.example.querydsl.export.ExportProperties;
+import com.example.querydsl.export.MemberExporter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+import java.util.zip.GZIPOutputStream;
+
+/*
+회원 검색 결과 내보내기
+GET /members/export?format=NDJSON|CSV&gzip=true&username=&teamName=&ageGoe=&ageLoe=
+응답은 요청 스레드가 아니라 mvc 비동기 스레드(ExportConfig, 동시 실행 수 제한)에서 씀
+시간 제한은 이 요청에만 querydsl.export.timeout 으로 적용
+시간이 지나면 작업 스레드를 interrupt 하고, 닫힌 응답에 쓰다가 실패하면 MemberExporter 가 db 쿼리를 중단
+ */
+@Slf4j
+@RestController
+@RequestMapping("/members")
+public class MemberExportController {
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final MemberExporter memberExporter;
+    private final ExportProperties properties;
+
+    public MemberExportController(MemberExporter memberExporter, ExportProperties properties) {
+        this.memberExporter = memberExporter;
+        this.properties = properties;
+    }
+
+    @GetMapping("/export")
+    public WebAsyncTask<Void> export(MemberSearchCondition condition,
+                                     @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                                     @RequestParam(defaultValue = "false") boolean gzip,
+                                     HttpServletResponse response) {
+        Callable<Void> task = () -> {
+            // 거절되면(503) 헤더가 남지 않도록 작업 스레드에서 설정
+            response.setContentType(
+                    new MediaType(MediaType.parseMediaType(format.getContentType()), StandardCharsets.UTF_8).toString());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"members." + format.getExtension() + "\"");
+            // 전송 구간만 압축 (클라이언트가 풀어서 저장)
+            if (gzip) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+
+            OutputStream out = response.getOutputStream();
+            // syncFlush : MemberExporter 가 flush 할 때마다 압축된 데이터도 클라이언트로 보냄
+            OutputStream target = gzip ? new GZIPOutputStream(out, GZIP_BUFFER_SIZE, true) : out;
+            try {
+                long rows = memberExporter.export(condition, format, target);
+                if (gzip) {
+                    ((GZIPOutputStream) target).finish();
+                }
+                out.flush();
+                log.info("exported {} members as {} ({})", rows, format, condition);
+            } catch (UncheckedIOException e) {
+                // 클라이언트 연결이 끊긴 경우, db 쿼리는 MemberExporter 에서 중단
+                log.info("member export aborted: {}", e.getCause().getMessage());
+            }
+            return null;
+        };
+        return new WebAsyncTask<>(properties.getTimeout().toMillis(), task);
+    }
+
+    // 동시 실행 수를 넘은 내보내기
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<Void> rejected() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.querydsl.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+// 커서 기반 조회 결과
+// nextCursor 를 그대로 다음 요청에 넘기면 이어서 조회, 다음 데이터가 없으면 null
+@Getter
+@ToString
+public class CursorSlice<T> {
+    private final List<T> content;
+    private final String nextCursor;
+
+    public CursorSlice(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.querydsl.dto;
+
+// 커서(keyset) 페이징에서 사용할 수 있는 정렬 기준
+// 같은 값이 여러 개일 수 있으므로 실제 정렬은 항상 member.id 를 두 번째 기준으로 붙여서 사용
+public enum MemberCursorSort {
+    USERNAME_ASC,
+    USERNAME_DESC,
+    AGE_ASC,
+    AGE_DESC;
+
+    public boolean isAscending() {
+        return this == USERNAME_ASC || this == AGE_ASC;
+    }
+
+    public boolean isUsername() {
+        return this == USERNAME_ASC || this == USERNAME_DESC;
+    }
+}
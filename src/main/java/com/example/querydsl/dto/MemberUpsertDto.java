@@ -0,0 +1,16 @@
+package com.example.querydsl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 외부 피드로 받은 회원 한 명, username 으로 기존 회원을 찾아서 있으면 age, team 을 갱신하고 없으면 추가
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberUpsertDto {
+    private String username;
+    private int age;
+    // null 이면 팀 없음
+    private Long teamId;
+}
@@ -0,0 +1,21 @@
+package com.example.querydsl.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 팀과 소속 회원 목록
+@Data
+@NoArgsConstructor
+public class TeamRosterDto {
+    private Long teamId;
+    private String teamName;
+    private List<MemberTeamDto> members = new ArrayList<>();
+
+    public TeamRosterDto(Long teamId, String teamName) {
+        this.teamId = teamId;
+        this.teamName = teamName;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.querydsl.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 팀별 회원 나이 통계, avg 는 count, sum 으로 계산
+@Data
+@NoArgsConstructor
+public class TeamStatisticsDto {
+    private Long teamId;
+    private String teamName;
+    private long memberCount;
+    private long ageSum;
+    private Integer minAge;
+    private Integer maxAge;
+
+    @QueryProjection
+    public TeamStatisticsDto(Long teamId, String teamName, long memberCount, long ageSum, Integer minAge, Integer maxAge) {
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.memberCount = memberCount;
+        this.ageSum = ageSum;
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+    }
+
+    // 회원이 없으면 null
+    public Double getAvgAge() {
+        return memberCount == 0 ? null : (double) ageSum / memberCount;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.querydsl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+// 대량 upsert 결과, 이미 있던 회원은 값이 같아도 updated 로 셈
+@Getter
+@ToString
+@AllArgsConstructor
+public class UpsertResult {
+    private final long inserted;
+    private final long updated;
+
+    public UpsertResult plus(UpsertResult other) {
+        return new UpsertResult(inserted + other.inserted, updated + other.updated);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.querydsl.dto;
+
+// 회원 이름 검색(타입어헤드) 방식
+public enum UsernameSearchMode {
+    // username like 'term%' -> idx_member_username 범위 스캔
+    STARTS_WITH,
+    // username 어디에든 term 이 포함 -> 3-gram 색인(member_username_gram)으로 후보를 찾은 뒤 확인
+    CONTAINS
+}
@@ -16,14 +16,32 @@ EntityClass에서 property에 접근하려면 객체를 만들어 접근해야 
 그래서 QueryDSL을 사용할 때 해당 Entity클래스의 propery에 접근을 바로 할 수 있었던 것!
  */
 
+/*
+검색 조건(MemberRepository.searchByWhere)별 인덱스
+- username = ?, order by username : idx_member_username
+  (age, team_id 까지 넣어서 MemberTeamDto 의 회원 컬럼을 인덱스만 읽고 만들 수 있음 - covering index,
+  InnoDB 보조 인덱스에는 member_id 가 항상 들어있음)
+- team.name = ? (+ age 범위) : 팀 이름으로 team_id 를 찾은 뒤 idx_member_team_age
+  team_id 단독 조건(팀 로스터, 벌크 변경)도 이 인덱스의 앞부분 사용, FK 인덱스를 따로 만들지 않음
+- age 범위만 있을 때 : idx_member_age
+username 은 회원의 자연 키 (MemberRepository.upsertAll 의 on duplicate key 기준) -> uk_member_username
+ */
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_member_username", columnNames = "username"), indexes = {
+        @Index(name = "idx_member_username", columnList = "username, age, team_id"),
+        @Index(name = "idx_member_team_age", columnList = "team_id, age"),
+        @Index(name = "idx_member_age", columnList = "age")
+})
 @Getter
 @Setter // 실무에서는 entity에 사용x! 실제로는 dto에서
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "username", "age"})
 public class Member {
+    // IDENTITY 전략은 insert 를 실행해야 id 를 알 수 있어서 hibernate 가 jdbc batch insert 를 하지 못함
+    // 시퀀스(MySQL 에서는 테이블로 흉내냄)에서 allocationSize 만큼 미리 id 를 받아와(pooled) 메모리에서 할당
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 100)
     @Column(name = "member_id")
     private Long id;
     private String username;
@@ -0,0 +1,42 @@
+package com.example.querydsl.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+/*
+MemberTeamDto 컬럼을 그대로 가진 조회 전용 테이블 (member left join team 을 미리 해둔 결과)
+MemberTeamViewProjector 가 outbox(read_model_outbox)를 읽어서 갱신하므로 원본보다 조금 늦게 반영됨
+검색 조건별 인덱스는 Member 와 같은 구성, 팀 이름이 컬럼에 있어서 조인 없이 team_name + age 인덱스 사용
+ */
+@Entity
+@Table(name = "member_team_view", indexes = {
+        @Index(name = "idx_member_team_view_username", columnList = "username, age"),
+        @Index(name = "idx_member_team_view_team_name_age", columnList = "team_name, age"),
+        @Index(name = "idx_member_team_view_team_id", columnList = "team_id"),
+        @Index(name = "idx_member_team_view_age", columnList = "age")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class MemberTeamView {
+    // MemberTeamViewProjector 가 sql 로 직접 갱신하므로 컬럼 이름을 고정
+    @Id
+    @Column(name = "member_id")
+    private Long memberId;
+    @Column(name = "username")
+    private String username;
+    @Column(name = "age")
+    private int age;
+    @Column(name = "team_id")
+    private Long teamId;
+    @Column(name = "team_name")
+    private String teamName;
+}
@@ -0,0 +1,43 @@
+package com.example.querydsl.entity;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+import java.io.Serializable;
+
+/*
+회원 이름 부분 검색용 3-gram 색인 (MemberUsernameIndex 가 관리)
+"member1" -> "mem", "emb", "mbe", "ber", "er1" 마다 한 행
+기본 키가 (gram, member_id) 라서 gram 으로 찾으면 클러스터드 인덱스 범위 스캔 한 번으로 회원 id 목록을 얻음
+
+회원 삭제 순서와 엮이지 않도록 Member 와 연관관계(FK) 없이 id 만 저장
+ */
+@Entity
+@Table(name = "member_username_gram")
+@IdClass(MemberUsernameGram.Key.class)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class MemberUsernameGram {
+    @Id
+    @Column(length = 3)
+    private String gram;
+    @Id
+    @Column(name = "member_id")
+    private Long memberId;
+
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String gram;
+        private Long memberId;
+    }
+}
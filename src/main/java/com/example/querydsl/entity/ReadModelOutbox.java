@@ -0,0 +1,51 @@
+package com.example.querydsl.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/*
+조회 모델(member_team_view)에 반영해야 할 변경 (transactional outbox)
+원본 변경과 같은 트랜잭션에서 기록되므로, 커밋된 변경은 반드시 outbox 에도 남음
+값이 아니라 "어떤 회원/팀이 바뀌었는지"만 기록하고, 반영할 때 원본에서 현재 값을 다시 읽음
+-> 같은 항목이 여러 번 있거나 순서가 바뀌어도 결과가 같음
+
+jdbc 로 직접 insert 하므로 batch insert 를 위한 시퀀스가 필요 없어서 auto_increment 사용
+ */
+@Entity
+@Table(name = "read_model_outbox")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class ReadModelOutbox {
+    public enum Type {
+        // member_id 가 from_id ~ to_id 인 회원 (한 명이면 from_id = to_id)
+        MEMBER,
+        // 팀 이름 변경, 삭제 (from_id = to_id = team_id)
+        TEAM
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", length = 10)
+    private Type type;
+    @Column(name = "from_id")
+    private long fromId;
+    @Column(name = "to_id")
+    private long toId;
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
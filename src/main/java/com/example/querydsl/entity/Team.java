@@ -1,24 +1,41 @@
 package com.example.querydsl.entity;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.OneToMany;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
 import java.util.ArrayList;
 import java.util.List;
 
+// 팀은 적고 거의 바뀌지 않으므로 2차 캐시에 저장
+// member.getTeam() 지연 로딩, em.find 는 db 대신 캐시에서 조회
+// idx_team_name : 회원 검색의 team.name = ? 조건, TeamRepository.findByName
 @Entity
+@Table(indexes = @Index(name = "idx_team_name", columnList = "name"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
 public class Team {
+    // Member 와 같은 이유로 batch insert 가 가능한 pooled 시퀀스 사용
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq_generator")
+    @SequenceGenerator(name = "team_seq_generator", sequenceName = "team_seq", allocationSize = 100)
     private Long id;
     private String name;
 
+    // 컬렉션 캐시는 회원 id 목록만 저장하므로 Member 가 캐시되지 않은 지금은
+    // 캐시 적중 시 회원을 한 명씩 다시 조회하게 됨 -> 캐시하지 않음
     @OneToMany(mappedBy = "team")
     private List<Member> members = new ArrayList<>();
 
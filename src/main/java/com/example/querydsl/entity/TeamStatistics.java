@@ -0,0 +1,36 @@
+package com.example.querydsl.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/*
+팀별 회원 나이 통계 (TeamStatisticsUpdater 가 회원 변경 때마다 갱신)
+팀 대시보드에서 count/sum/avg/min/max 를 회원 전체를 group by 하지 않고 팀 수만큼만 읽어서 구함
+회원이 없는 팀은 count, sum 이 0 이고 min, max 가 null
+ */
+@Entity
+@Table(name = "team_statistics")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class TeamStatistics {
+    @Id
+    @Column(name = "team_id")
+    private Long teamId;
+    // TeamStatisticsUpdater 가 sql 로 직접 갱신하므로 컬럼 이름을 고정
+    @Column(name = "member_count")
+    private long memberCount;
+    @Column(name = "age_sum")
+    private long ageSum;
+    @Column(name = "min_age")
+    private Integer minAge;
+    @Column(name = "max_age")
+    private Integer maxAge;
+}
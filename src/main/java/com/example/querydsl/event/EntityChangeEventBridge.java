@@ -0,0 +1,200 @@
+package com.example.querydsl.event;
+
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.ActionQueue;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+hibernate 엔티티 이벤트 -> 스프링 이벤트(EntityChangesEvent, 회원/팀 변경 목록)
+save(persist) 뿐 아니라 member.changeTeam() 같은 변경 감지(dirty checking) 수정도 flush 시점에 잡힘
+
+flush 중에는 세션으로 다른 쿼리를 실행하면 안 되기 때문에 바로 발행하지 않고 세션별로 모아두었다가
+- flush(em.flush(), 커밋 시점 flush)가 끝나면 그때까지 모인 변경을 한 번에 발행
+- 쿼리 전 자동 flush 로 반영된 변경은 다음 flush 또는 커밋 직전(BeforeTransactionCompletionProcess)에 발행
+-> 엔티티마다 콜백, jdbc 쓰기를 하지 않고 리스너가 변경 목록을 batch 로 처리
+-> saveAll 처럼 chunk 마다 flush, clear 하는 대량 저장도 chunk 만큼만 메모리에 남음
+-> @EventListener 는 같은 트랜잭션 안에서 쿼리를 실행할 수 있고
+-> @TransactionalEventListener 는 커밋 이후에 실행됨
+
+벌크 연산(update, delete 쿼리)은 엔티티 이벤트가 발생하지 않으므로 여기서 잡히지 않음
+ */
+@Component
+public class EntityChangeEventBridge implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+        FlushEventListener {
+    private final EntityManagerFactory emf;
+    private final ApplicationEventPublisher publisher;
+    // 트랜잭션이 진행 중인 세션별로 아직 발행하지 않은 변경 (트랜잭션이 끝나면 커밋, 롤백 모두 제거)
+    private final Map<SharedSessionContractImplementor, Changes> pending = new ConcurrentHashMap<>();
+
+    public EntityChangeEventBridge(EntityManagerFactory emf, ApplicationEventPublisher publisher) {
+        this.emf = emf;
+        this.publisher = publisher;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        // 기본 flush 리스너 뒤에 실행됨 -> flush 가 끝난 뒤
+        registry.appendListeners(EventType.FLUSH, this);
+    }
+
+    @Override
+    public void onFlush(FlushEvent event) {
+        publish(event.getSession());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member) {
+            Object[] state = event.getState();
+            EntityPersister persister = event.getPersister();
+            collect(event.getSession(), MemberChangedEvent.inserted(
+                    (Long) event.getId(),
+                    (String) value(persister, state, "username"),
+                    teamId(value(persister, state, "team")),
+                    (Integer) value(persister, state, "age")));
+        } else if (event.getEntity() instanceof Team) {
+            collect(event.getSession(), new TeamChangedEvent(TeamChangedEvent.Type.INSERTED,
+                    (Long) event.getId(), null, (String) value(event.getPersister(), event.getState(), "name")));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        EntityPersister persister = event.getPersister();
+        // 준영속 엔티티를 update 한 경우처럼 이전 상태를 모르면 현재 상태를 이전 상태로 간주
+        Object[] oldState = event.getOldState() != null ? event.getOldState() : event.getState();
+        Object[] newState = event.getState();
+
+        if (event.getEntity() instanceof Member) {
+            MemberChangedEvent changed = MemberChangedEvent.updated(
+                    (Long) event.getId(),
+                    (String) value(persister, oldState, "username"),
+                    (String) value(persister, newState, "username"),
+                    teamId(value(persister, oldState, "team")),
+                    teamId(value(persister, newState, "team")),
+                    (Integer) value(persister, oldState, "age"),
+                    (Integer) value(persister, newState, "age"));
+            if (!Objects.equals(changed.getOldUsername(), changed.getNewUsername())
+                    || !Objects.equals(changed.getOldTeamId(), changed.getNewTeamId())
+                    || !Objects.equals(changed.getOldAge(), changed.getNewAge())) {
+                collect(event.getSession(), changed);
+            }
+        } else if (event.getEntity() instanceof Team) {
+            String oldName = (String) value(persister, oldState, "name");
+            String newName = (String) value(persister, newState, "name");
+            if (!Objects.equals(oldName, newName)) {
+                collect(event.getSession(),
+                        new TeamChangedEvent(TeamChangedEvent.Type.UPDATED, (Long) event.getId(), oldName, newName));
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        EntityPersister persister = event.getPersister();
+        Object[] state = event.getDeletedState();
+
+        if (event.getEntity() instanceof Member) {
+            collect(event.getSession(), MemberChangedEvent.deleted(
+                    (Long) event.getId(),
+                    (String) value(persister, state, "username"),
+                    teamId(value(persister, state, "team")),
+                    (Integer) value(persister, state, "age")));
+        } else if (event.getEntity() instanceof Team) {
+            collect(event.getSession(), new TeamChangedEvent(TeamChangedEvent.Type.DELETED,
+                    (Long) event.getId(), (String) value(persister, state, "name"), null));
+        }
+    }
+
+    // 커밋 이후 콜백(PostCommit*EventListener)으로 쓰는 리스너가 아님
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private void collect(EventSource session, MemberChangedEvent event) {
+        changes(session).members.add(event);
+    }
+
+    private void collect(EventSource session, TeamChangedEvent event) {
+        changes(session).teams.add(event);
+    }
+
+    // 트랜잭션에서 처음 바뀐 엔티티일 때 커밋 직전 발행, 트랜잭션 종료 시 정리를 한 번만 등록
+    private Changes changes(EventSource session) {
+        return pending.computeIfAbsent(session, s -> {
+            ActionQueue actionQueue = session.getActionQueue();
+            actionQueue.registerProcess((BeforeTransactionCompletionProcess) this::publish);
+            actionQueue.registerProcess((AfterTransactionCompletionProcess) (success, completed) -> pending.remove(completed));
+            return new Changes();
+        });
+    }
+
+    private void publish(SharedSessionContractImplementor session) {
+        Changes changes = pending.get(session);
+        if (changes == null || changes.isEmpty()) {
+            return;
+        }
+        EntityChangesEvent event = new EntityChangesEvent(changes.teams, changes.members);
+        changes.teams = new ArrayList<>();
+        changes.members = new ArrayList<>();
+        publisher.publishEvent(event);
+    }
+
+    private Object value(EntityPersister persister, Object[] state, String property) {
+        return state[persister.getEntityMetamodel().getPropertyIndex(property)];
+    }
+
+    // 지연 로딩 프록시를 초기화하지 않고 id 만 꺼냄
+    private Long teamId(Object team) {
+        if (team == null) {
+            return null;
+        }
+        if (team instanceof HibernateProxy) {
+            return (Long) ((HibernateProxy) team).getHibernateLazyInitializer().getIdentifier();
+        }
+        return ((Team) team).getId();
+    }
+
+    private static class Changes {
+        private List<TeamChangedEvent> teams = new ArrayList<>();
+        private List<MemberChangedEvent> members = new ArrayList<>();
+
+        boolean isEmpty() {
+            return teams.isEmpty() && members.isEmpty();
+        }
+    }
+}
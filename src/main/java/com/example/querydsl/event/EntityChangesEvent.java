@@ -0,0 +1,18 @@
+package com.example.querydsl.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+// 한 번의 flush(또는 커밋 직전)까지 쌓인 회원, 팀 변경을 모아서 한 번에 발행 (EntityChangeEventBridge)
+// 리스너는 같은 트랜잭션 안에서 실행되고, 목록은 변경이 일어난 순서
+// 발행 시점에는 목록의 변경이 모두 db 에 반영(flush)되어 있음
+@Getter
+@ToString(of = {"teamChanges", "memberChanges"})
+@AllArgsConstructor
+public class EntityChangesEvent {
+    private final List<TeamChangedEvent> teamChanges;
+    private final List<MemberChangedEvent> memberChanges;
+}
@@ -0,0 +1,46 @@
+package com.example.querydsl.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+// 벌크 연산(update, delete 쿼리)은 엔티티 이벤트가 발생하지 않으므로 리포지토리에서 직접 발행
+// id 가 fromId ~ toId 인 회원 중 조건에 맞는 회원이 바뀌었고, 그 회원들이 속했던(속하게 된) 팀이 affectedTeamIds
+// UPSERTED 는 범위가 아니라 insertedIds, updatedIds 의 회원만 바뀜 (fromId, toId 는 그 id 의 최소, 최대)
+// 벌크 연산과 같은 트랜잭션 안에서 발행됨
+@Getter
+@ToString
+@AllArgsConstructor
+public class MemberBulkChangedEvent {
+    public enum Type {
+        AGE_CHANGED, TEAM_CHANGED, DELETED,
+        // MemberRepository.upsertAll, insertedIds 회원이 추가되었고 updatedIds 회원의 age, team 이 바뀜 (username 은 그대로)
+        UPSERTED
+    }
+
+    private final Type type;
+    private final long fromId;
+    private final long toId;
+    private final long affectedRows;
+    // 팀이 없는 회원이 포함되면 null 도 들어있음
+    private final Set<Long> affectedTeamIds;
+    // UPSERTED 에서만 채워짐, 나머지는 빈 Set
+    private final Set<Long> insertedIds;
+    private final Set<Long> updatedIds;
+
+    public MemberBulkChangedEvent(Type type, long fromId, long toId, long affectedRows, Set<Long> affectedTeamIds) {
+        this(type, fromId, toId, affectedRows, affectedTeamIds, Collections.emptySet(), Collections.emptySet());
+    }
+
+    public static MemberBulkChangedEvent upserted(Set<Long> insertedIds, Set<Long> updatedIds, Set<Long> affectedTeamIds) {
+        TreeSet<Long> ids = new TreeSet<>(insertedIds);
+        ids.addAll(updatedIds);
+        return new MemberBulkChangedEvent(Type.UPSERTED,
+                ids.isEmpty() ? 0 : ids.first(), ids.isEmpty() ? 0 : ids.last(), ids.size(),
+                affectedTeamIds, insertedIds, updatedIds);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.querydsl.event;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+// 회원 한 명이 저장, 수정(팀 변경 포함), 삭제된 변경 하나
+// flush 이후 EntityChangesEvent 에 모여서 발행되므로 리스너는 같은 트랜잭션 안에서 실행됨
+// old 값은 INSERTED 일 때, new 값은 DELETED 일 때 null
+@Getter
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class MemberChangedEvent {
+    public enum Type {
+        INSERTED, UPDATED, DELETED
+    }
+
+    private final Type type;
+    private final Long memberId;
+    private final String oldUsername;
+    private final String newUsername;
+    private final Long oldTeamId;
+    private final Long newTeamId;
+    private final Integer oldAge;
+    private final Integer newAge;
+
+    public static MemberChangedEvent inserted(Long memberId, String username, Long teamId, Integer age) {
+        return new MemberChangedEvent(Type.INSERTED, memberId, null, username, null, teamId, null, age);
+    }
+
+    public static MemberChangedEvent updated(Long memberId,
+                                             String oldUsername, String newUsername,
+                                             Long oldTeamId, Long newTeamId,
+                                             Integer oldAge, Integer newAge) {
+        return new MemberChangedEvent(Type.UPDATED, memberId, oldUsername, newUsername, oldTeamId, newTeamId, oldAge, newAge);
+    }
+
+    public static MemberChangedEvent deleted(Long memberId, String username, Long teamId, Integer age) {
+        return new MemberChangedEvent(Type.DELETED, memberId, username, null, teamId, null, age, null);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.querydsl.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+// 팀이 저장, 수정(이름 변경), 삭제된 변경 하나 (MemberChangedEvent 와 함께 EntityChangesEvent 로 발행)
+@Getter
+@ToString
+@AllArgsConstructor
+public class TeamChangedEvent {
+    public enum Type {
+        INSERTED, UPDATED, DELETED
+    }
+
+    private final Type type;
+    private final Long teamId;
+    private final String oldName;
+    private final String newName;
+}
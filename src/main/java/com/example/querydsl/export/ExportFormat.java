@@ -0,0 +1,16 @@
+package com.example.querydsl.export;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    // 한 줄에 json 객체 하나
+    NDJSON("application/x-ndjson", "ndjson"),
+    // 첫 줄은 헤더
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+}
@@ -0,0 +1,19 @@
+package com.example.querydsl.export;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "querydsl.export")
+public class ExportProperties {
+    // 동시에 실행할 내보내기 수, 내보내기 하나가 끝날 때까지 스레드와 커넥션을 하나씩 씀
+    private int maxConcurrent = 4;
+    // 실행 중인 내보내기가 max-concurrent 개일 때 기다릴 요청 수, 넘으면 503
+    private int queueCapacity = 0;
+    // 내보내기 요청 하나의 최대 시간 (다른 mvc 비동기 요청은 기본값)
+    private Duration timeout = Duration.ofHours(1);
+}
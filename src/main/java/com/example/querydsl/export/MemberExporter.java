@@ -0,0 +1,210 @@
+package com.example.querydsl.export;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.repository.MemberRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+회원 검색 결과를 OutputStream 에 바로 씀 (MemberTeamDto 목록을 만들지 않음)
+- 읽기 전용 트랜잭션에서 결과셋을 앞으로만 읽음
+  MySQL 은 fetchSize = Integer.MIN_VALUE 로 한 행씩 받아오는 스트리밍 결과셋 사용 -> 행 수와 관계없이 메모리 일정
+- FLUSH_INTERVAL 행마다 flush 해서 클라이언트가 받는 동안 다음 행을 읽음
+- 쓰기가 실패하면(클라이언트 연결 끊김) Statement.cancel 로 db 쿼리를 중단
+  (MySQL 스트리밍 결과셋은 그냥 닫으면 남은 행을 모두 읽고 나서야 닫힘)
+
+엔티티, dto 를 거치지 않도록 sql 을 직접 작성, 조건은 MemberRepository.searchByWhere 와 같음
+행 순서는 보장하지 않음 (정렬하면 첫 행을 보내기 전에 전체를 정렬해야 함)
+ */
+@Component
+public class MemberExporter {
+    // 이 행 수마다 클라이언트로 flush
+    public static final int FLUSH_INTERVAL = 1000;
+    // MySQL 외의 db 에서 한 번에 가져올 행 수
+    private static final int DEFAULT_FETCH_SIZE = 1000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readTx;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public MemberExporter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+    }
+
+    // 반환값은 내보낸 행 수
+    public long export(MemberSearchCondition condition, ExportFormat format, OutputStream out) {
+        List<Object> params = new ArrayList<>();
+        String sql = searchSql(condition, params);
+
+        Long rows = readTx.execute(status -> jdbcTemplate.execute(
+                (PreparedStatementCreator) con -> {
+                    PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    boolean mysql = "MySQL".equals(con.getMetaData().getDatabaseProductName());
+                    ps.setFetchSize(mysql ? MemberRepository.MYSQL_STREAMING_FETCH_SIZE : DEFAULT_FETCH_SIZE);
+                    for (int i = 0; i < params.size(); i++) {
+                        ps.setObject(i + 1, params.get(i));
+                    }
+                    return ps;
+                },
+                (PreparedStatement ps) -> {
+                    long count = 0;
+                    try (ResultSet rs = ps.executeQuery()) {
+                        try {
+                            RowWriter writer = open(format, out);
+                            while (rs.next()) {
+                                long teamId = rs.getLong(4);
+                                writer.write(rs.getLong(1), rs.getString(2), rs.getInt(3),
+                                        rs.wasNull() ? null : teamId, rs.getString(5));
+                                if (++count % FLUSH_INTERVAL == 0) {
+                                    writer.flush();
+                                }
+                            }
+                            writer.flush();
+                        } catch (IOException e) {
+                            // rs 를 닫기 전에 취소 (닫힌 뒤에 취소하면 이미 남은 행을 모두 읽은 뒤)
+                            ps.cancel();
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                    return count;
+                }));
+        return rows == null ? 0 : rows;
+    }
+
+    private String searchSql(MemberSearchCondition condition, List<Object> params) {
+        StringBuilder sql = new StringBuilder(
+                "select m.member_id, m.username, m.age, m.team_id, t.name from Member m");
+        // 팀 이름 조건이 있으면 inner join (MemberRepository.joinTeam 과 같은 이유)
+        sql.append(StringUtils.hasText(condition.getTeamName()) ? " join" : " left join")
+                .append(" Team t on t.id = m.team_id where 1 = 1");
+
+        if (StringUtils.hasText(condition.getUsername())) {
+            sql.append(" and m.username = ?");
+            params.add(condition.getUsername());
+        }
+        if (StringUtils.hasText(condition.getTeamName())) {
+            sql.append(" and t.name = ?");
+            params.add(condition.getTeamName());
+        }
+        if (condition.getAgeGoe() != null) {
+            sql.append(" and m.age >= ?");
+            params.add(condition.getAgeGoe());
+        }
+        if (condition.getAgeLoe() != null) {
+            sql.append(" and m.age <= ?");
+            params.add(condition.getAgeLoe());
+        }
+        return sql.toString();
+    }
+
+    private RowWriter open(ExportFormat format, OutputStream out) throws IOException {
+        if (format == ExportFormat.CSV) {
+            return new CsvWriter(out);
+        }
+        return new NdjsonWriter(jsonFactory, out);
+    }
+
+    private interface RowWriter {
+        void write(long memberId, String username, int age, Long teamId, String teamName) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private static class NdjsonWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        NdjsonWriter(JsonFactory jsonFactory, OutputStream out) throws IOException {
+            generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+            // 응답 스트림은 컨트롤러가 닫음
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(long memberId, String username, int age, Long teamId, String teamName) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("memberId", memberId);
+            generator.writeStringField("username", username);
+            generator.writeNumberField("age", age);
+            if (teamId == null) {
+                generator.writeNullField("teamId");
+            } else {
+                generator.writeNumberField("teamId", teamId);
+            }
+            generator.writeStringField("teamName", teamName);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static class CsvWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvWriter(OutputStream out) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            writer.write("memberId,username,age,teamId,teamName\n");
+        }
+
+        @Override
+        public void write(long memberId, String username, int age, Long teamId, String teamName) throws IOException {
+            writer.write(Long.toString(memberId));
+            writer.write(',');
+            writeText(username);
+            writer.write(',');
+            writer.write(Integer.toString(age));
+            writer.write(',');
+            if (teamId != null) {
+                writer.write(Long.toString(teamId));
+            }
+            writer.write(',');
+            writeText(teamName);
+            writer.write('\n');
+        }
+
+        // 쉼표, 따옴표, 줄바꿈이 있으면 따옴표로 감싸고 따옴표는 두 번 씀 (RFC 4180)
+        private void writeText(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.querydsl.loader;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "querydsl.batch-loader")
+public class BatchLoaderProperties {
+    // 첫 요청 이후 이 시간 동안 들어온 요청을 모아서 한 번에 조회
+    private Duration window = Duration.ofMillis(2);
+    // 이만큼 모이면 window 를 기다리지 않고 바로 조회
+    private int maxBatchSize = 1000;
+}
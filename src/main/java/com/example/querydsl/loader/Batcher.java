@@ -0,0 +1,113 @@
+package com.example.querydsl.loader;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// 키 단위 요청을 모아서 loader 한 번으로 처리하고 결과를 요청한 쪽에 나눠줌
+// 같은 키는 한 번만 조회하고 같은 future 를 돌려줌
+class Batcher<K, V> {
+    private final Function<List<K>, Map<K, V>> loader;
+    private final V missing;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+
+    private Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+    // 지금 모으는 batch 의 window 타이머
+    // 타이머가 끝나기 전에 batch 가 가득 차거나 dispatch() 로 먼저 나가면 취소하고, 이미 실행 중이어서 취소가 안 된 타이머는
+    // generation 이 달라서 다음 batch 를 window 보다 일찍 내보내지 않음
+    private ScheduledFuture<?> timer;
+    private long generation;
+
+    Batcher(Function<List<K>, Map<K, V>> loader, V missing, long windowNanos, int maxBatchSize,
+            ScheduledExecutorService scheduler, Executor executor) {
+        this.loader = loader;
+        this.missing = missing;
+        this.windowNanos = windowNanos;
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = scheduler;
+        this.executor = executor;
+    }
+
+    CompletableFuture<V> load(K key) {
+        CompletableFuture<V> future;
+        boolean full;
+        synchronized (this) {
+            future = pending.get(key);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            pending.put(key, future);
+
+            full = pending.size() >= maxBatchSize;
+            if (!full && timer == null) {
+                long windowGeneration = generation;
+                // 스케줄러 스레드는 타이머 역할만 하고 조회는 executor 에서
+                timer = scheduler.schedule(() -> executor.execute(() -> dispatchWindow(windowGeneration)),
+                        windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (full) {
+            executor.execute(this::dispatch);
+        }
+        return future;
+    }
+
+    // 모인 요청을 바로 조회 (요청 단위로 모을 때는 요청 처리 마지막에 호출)
+    void dispatch() {
+        Map<K, CompletableFuture<V>> batch;
+        synchronized (this) {
+            batch = takePending();
+        }
+        complete(batch);
+    }
+
+    // window 타이머 - 타이머를 건 batch 가 아직 남아 있을 때만
+    private void dispatchWindow(long windowGeneration) {
+        Map<K, CompletableFuture<V>> batch;
+        synchronized (this) {
+            if (generation != windowGeneration) {
+                return;
+            }
+            batch = takePending();
+        }
+        complete(batch);
+    }
+
+    // synchronized 안에서 호출
+    private Map<K, CompletableFuture<V>> takePending() {
+        generation++;
+        if (timer != null) {
+            timer.cancel(false);
+            timer = null;
+        }
+        if (pending.isEmpty()) {
+            return null;
+        }
+        Map<K, CompletableFuture<V>> batch = pending;
+        pending = new LinkedHashMap<>();
+        return batch;
+    }
+
+    private void complete(Map<K, CompletableFuture<V>> batch) {
+        if (batch == null) {
+            return;
+        }
+        try {
+            Map<K, V> loaded = loader.apply(new ArrayList<>(batch.keySet()));
+            batch.forEach((key, future) -> future.complete(loaded.getOrDefault(key, missing)));
+        } catch (RuntimeException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.querydsl.loader;
+
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.repository.MemberRepository;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/*
+DataLoader 방식의 회원 단건 조회
+필드 resolver 마다 findById, findByname_queryDsl 을 따로 부르면 요청 하나에 쿼리가 수백 번 나감
+짧은 시간(window) 동안 들어온 조회를 모아서 member.id in (...), member.username in (...) 한 번으로 조회하고
+중복 키는 한 번만 조회해서 결과를 각 호출자에게 나눠줌
+- window 를 기다리지 않으려면 요청 처리 마지막에 dispatch() 호출
+- 결과 엔티티는 별도 트랜잭션에서 조회한 준영속 상태 (team 은 fetch join 되어 있음)
+ */
+@Component
+public class MemberBatchLoader {
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory("member-batch-timer-"));
+    private final ExecutorService executor = Executors.newFixedThreadPool(2, threadFactory("member-batch-loader-"));
+
+    private final Batcher<Long, Optional<Member>> byId;
+    private final Batcher<String, List<Member>> byUsername;
+
+    public MemberBatchLoader(MemberRepository memberRepository, BatchLoaderProperties properties) {
+        long windowNanos = properties.getWindow().toNanos();
+        int maxBatchSize = properties.getMaxBatchSize();
+
+        this.byId = new Batcher<>(ids -> {
+            Map<Long, Optional<Member>> result = new HashMap<>();
+            for (Member m : memberRepository.findAllByIds(ids)) {
+                result.put(m.getId(), Optional.of(m));
+            }
+            return result;
+        }, Optional.empty(), windowNanos, maxBatchSize, scheduler, executor);
+
+        // username 은 유일하지 않으므로 목록으로 반환
+        this.byUsername = new Batcher<>(usernames -> {
+            Map<String, List<Member>> result = new HashMap<>();
+            for (Member m : memberRepository.findAllByUsernames(usernames)) {
+                result.computeIfAbsent(m.getUsername(), k -> new ArrayList<>()).add(m);
+            }
+            return result;
+        }, Collections.emptyList(), windowNanos, maxBatchSize, scheduler, executor);
+    }
+
+    public CompletableFuture<Optional<Member>> loadById(Long id) {
+        return byId.load(id);
+    }
+
+    public CompletableFuture<List<Member>> loadByUsername(String username) {
+        return byUsername.load(username);
+    }
+
+    public void dispatch() {
+        byId.dispatch();
+        byUsername.dispatch();
+    }
+
+    // 남은 타이머는 버리고, 이미 시작한 조회는 끝날 때까지 잠시 기다림
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        scheduler.shutdownNow();
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        CustomizableThreadFactory factory = new CustomizableThreadFactory(prefix);
+        factory.setDaemon(true);
+        return factory;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.querydsl.metrics;
+
+import com.example.querydsl.metrics.RepeatedStatementDetector.Mode;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "querydsl.metrics")
+public class QueryMetricsProperties {
+    private boolean enabled = true;
+    // 0.0 ~ 1.0, 실행 시간 외의 측정값(sql 수, 로딩된 엔티티 수, jpql)을 모을 호출 비율
+    private double sampleRate = 1.0;
+    // 이 시간 이상 걸린 호출은 jpql 과 함께 warn 로그
+    private Duration slowQueryThreshold = Duration.ofMillis(500);
+    // 한 트랜잭션에서 같은 select 가 반복될 때 처리 방식 (OFF, LOG, FAIL)
+    private Mode repeatedStatementMode = Mode.LOG;
+    private int repeatedStatementThreshold = 10;
+}
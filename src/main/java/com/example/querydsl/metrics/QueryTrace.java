@@ -0,0 +1,89 @@
+package com.example.querydsl.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// 현재 스레드에서 진행 중인 측정 구간 하나
+// 실행된 sql 문 수와 querydsl 이 만든 jpql 을 모음
+// 구간 안에서 다시 start 하면 중첩되고, 안쪽 구간이 끝나면 측정값을 바깥 구간에 더함
+public class QueryTrace {
+    private static final ThreadLocal<QueryTrace> CURRENT = new ThreadLocal<>();
+    // 느린 쿼리 로그에 남길 jpql 최대 개수
+    private static final int MAX_JPQL = 10;
+    // 쿼리 수 검증 실패 메시지에 남길 sql 최대 개수
+    private static final int MAX_SQL = 50;
+
+    private final QueryTrace parent;
+    private int statementCount;
+    private final List<String> jpql = new ArrayList<>(1);
+    private final List<String> sql = new ArrayList<>(1);
+
+    private QueryTrace(QueryTrace parent) {
+        this.parent = parent;
+    }
+
+    public static QueryTrace start() {
+        QueryTrace trace = new QueryTrace(CURRENT.get());
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    public static QueryTrace current() {
+        return CURRENT.get();
+    }
+
+    // block 을 실행하는 동안 준비된 sql 문 수를 셈
+    // 테스트에서 "이 코드는 sql 을 N 번 이하로 실행한다" 를 검증할 때 사용
+    public static QueryTrace trace(Runnable block) {
+        QueryTrace trace = start();
+        try {
+            block.run();
+        } finally {
+            trace.stop();
+        }
+        return trace;
+    }
+
+    public void stop() {
+        if (parent == null) {
+            CURRENT.remove();
+            return;
+        }
+        parent.statementCount += statementCount;
+        for (String q : jpql) {
+            parent.jpqlRendered(q);
+        }
+        for (String s : sql) {
+            if (parent.sql.size() < MAX_SQL) {
+                parent.sql.add(s);
+            }
+        }
+        CURRENT.set(parent);
+    }
+
+    void statementPrepared(String statement) {
+        statementCount++;
+        if (sql.size() < MAX_SQL) {
+            sql.add(statement);
+        }
+    }
+
+    void jpqlRendered(String query) {
+        if (jpql.size() < MAX_JPQL) {
+            jpql.add(query);
+        }
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public List<String> getJpql() {
+        return Collections.unmodifiableList(jpql);
+    }
+
+    public List<String> getSql() {
+        return Collections.unmodifiableList(sql);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.querydsl.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/*
+N+1 감지
+루프 안에서 member.getTeam().getName() 처럼 지연 로딩을 건드리면 같은 select 가 행 수만큼 반복됨
+트랜잭션마다 select 문 모양별 실행 횟수를 세고 threshold 를 넘으면 로그(LOG) 또는 예외(FAIL)
+in (?, ?, ...) 의 파라미터 개수는 모양에서 제외 (배치 조회는 개수만 다른 같은 쿼리)
+ */
+@Slf4j
+public class RepeatedStatementDetector {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+
+    public enum Mode {
+        OFF, LOG, FAIL
+    }
+
+    private final Mode mode;
+    private final int threshold;
+
+    public RepeatedStatementDetector(Mode mode, int threshold) {
+        this.mode = mode;
+        this.threshold = threshold;
+    }
+
+    void statementPrepared(String sql) {
+        if (mode == Mode.OFF || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        String shape = shapeOf(sql);
+        if (!shape.startsWith("select")) {
+            return;
+        }
+
+        int count = countsOfCurrentTransaction().merge(shape, 1, Integer::sum);
+        // threshold 를 처음 넘었을 때 한 번만 알림
+        if (count == threshold + 1) {
+            String message = "같은 select 가 한 트랜잭션에서 " + threshold + "번 넘게 실행되었습니다 (N+1 의심): " + shape;
+            if (mode == Mode.FAIL) {
+                throw new RepeatedStatementException(message);
+            }
+            log.warn(message);
+        }
+    }
+
+    static String shapeOf(String sql) {
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        shape = PARAMETER_LIST.matcher(shape).replaceAll("(?)");
+        return shape.toLowerCase(Locale.ROOT);
+    }
+
+    // 트랜잭션 리소스로 카운터를 묶어두고 트랜잭션이 끝나면 해제
+    // REQUIRES_NEW 로 중단되었다가 재개되는 경우에도 바깥 트랜잭션의 카운터가 섞이지 않도록 suspend/resume 처리
+    @SuppressWarnings("unchecked")
+    private Map<String, Integer> countsOfCurrentTransaction() {
+        Map<String, Integer> counts = (Map<String, Integer>) TransactionSynchronizationManager.getResource(this);
+        if (counts != null) {
+            return counts;
+        }
+
+        Map<String, Integer> newCounts = new HashMap<>();
+        TransactionSynchronizationManager.bindResource(this, newCounts);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(RepeatedStatementDetector.this);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(RepeatedStatementDetector.this, newCounts);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(RepeatedStatementDetector.this);
+            }
+        });
+        return newCounts;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.querydsl.metrics;
+
+// RepeatedStatementDetector 가 FAIL 모드에서 N+1 을 감지했을 때
+public class RepeatedStatementException extends RuntimeException {
+
+    public RepeatedStatementException(String message) {
+        super(message);
+    }
+}
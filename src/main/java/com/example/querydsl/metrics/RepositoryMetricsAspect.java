@@ -0,0 +1,136 @@
+package com.example.querydsl.metrics;
+
+import com.example.querydsl.dto.CursorSlice;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+리포지토리 public 메소드 호출마다
+- repository.invocations : 실행 시간 (히스토그램, p50/p95/p99)
+- repository.rows : 반환한 행 수
+- repository.statements : 실행한 jdbc statement 수
+- repository.entities.loaded : 영속성 컨텍스트에 새로 올라간 엔티티 수
+를 기록하고 /actuator/metrics 로 노출
+실행 시간은 항상 기록하고 나머지는 sampleRate 비율로만 측정해서 운영 환경 부담을 줄임
+ */
+@Slf4j
+@Aspect
+@Component
+@ConditionalOnProperty(prefix = "querydsl.metrics", name = "enabled", matchIfMissing = true)
+public class RepositoryMetricsAspect {
+    private final MeterRegistry registry;
+    private final EntityManager em;
+    private final QueryMetricsProperties properties;
+
+    public RepositoryMetricsAspect(MeterRegistry registry, EntityManager em, QueryMetricsProperties properties) {
+        this.registry = registry;
+        this.em = em;
+        this.properties = properties;
+    }
+
+    @Around("execution(public * com.example.querydsl.repository.*Repository.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+
+        boolean sampled = ThreadLocalRandom.current().nextDouble() < properties.getSampleRate();
+        QueryTrace trace = sampled ? QueryTrace.start() : null;
+        int managedBefore = sampled ? managedEntityCount() : -1;
+
+        long start = System.nanoTime();
+        String outcome = "success";
+        Object result = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } catch (Throwable e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            if (trace != null) {
+                trace.stop();
+            }
+
+            Timer.builder("repository.invocations")
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(registry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+
+            if (trace != null) {
+                record("repository.statements", repository, method, trace.getStatementCount());
+                long rows = rowCount(result);
+                if (rows >= 0) {
+                    record("repository.rows", repository, method, rows);
+                }
+                int managedAfter = managedEntityCount();
+                if (managedBefore >= 0 && managedAfter >= 0) {
+                    // clear 가 일어난 경우 음수가 될 수 있음
+                    record("repository.entities.loaded", repository, method, Math.max(0, managedAfter - managedBefore));
+                }
+            }
+
+            if (elapsed >= properties.getSlowQueryThreshold().toNanos()) {
+                log.warn("slow repository call {}.{} took {} ms, statements={}, jpql={}",
+                        repository, method, elapsed / 1_000_000,
+                        trace == null ? "n/a" : trace.getStatementCount(),
+                        trace == null ? "not sampled" : trace.getJpql());
+            }
+        }
+    }
+
+    private void record(String name, String repository, String method, long value) {
+        DistributionSummary.builder(name)
+                .tag("repository", repository)
+                .tag("method", method)
+                .register(registry)
+                .record(value);
+    }
+
+    // 트랜잭션 밖에서는 공유 EntityManager 가 호출마다 새로 만들어지므로 측정하지 않음
+    private int managedEntityCount() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return -1;
+        }
+        return em.unwrap(SessionImplementor.class).getPersistenceContext().getNumberOfManagedEntities();
+    }
+
+    private long rowCount(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof CursorSlice) {
+            return ((CursorSlice<?>) result).getContent().size();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number) {
+            return ((Number) result).longValue();
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.querydsl.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// hibernate 가 jdbc statement 를 준비할 때마다 호출됨
+// sql 은 바꾸지 않고 현재 스레드의 QueryTrace 에 실행 횟수를 기록하고
+// 같은 트랜잭션에서 같은 모양의 select 가 반복되는지 RepeatedStatementDetector 로 확인
+public class StatementCountingInspector implements StatementInspector {
+    private final RepeatedStatementDetector repeatedStatementDetector;
+
+    public StatementCountingInspector(RepeatedStatementDetector repeatedStatementDetector) {
+        this.repeatedStatementDetector = repeatedStatementDetector;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        QueryTrace trace = QueryTrace.current();
+        if (trace != null) {
+            trace.statementPrepared(sql);
+        }
+        repeatedStatementDetector.statementPrepared(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.querydsl.metrics;
+
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.impl.JPAQuery;
+
+import javax.persistence.EntityManager;
+
+// 쿼리를 jpql 로 직렬화할 때 현재 QueryTrace 에 jpql 을 남기는 JPAQuery
+public class TracingJPAQuery<T> extends JPAQuery<T> {
+
+    public TracingJPAQuery(EntityManager em) {
+        super(em);
+    }
+
+    @Override
+    protected JPQLSerializer serialize(boolean forCountRow) {
+        JPQLSerializer serializer = super.serialize(forCountRow);
+        QueryTrace trace = QueryTrace.current();
+        if (trace != null) {
+            trace.jpqlRendered(serializer.toString());
+        }
+        return serializer;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.querydsl.metrics;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+
+import javax.persistence.EntityManager;
+
+// select, selectFrom 등 모든 조회 쿼리가 query() 를 거치므로 여기서 TracingJPAQuery 를 만들어 줌
+public class TracingJPAQueryFactory extends JPAQueryFactory {
+    private final EntityManager em;
+
+    public TracingJPAQueryFactory(EntityManager em) {
+        super(em);
+        this.em = em;
+    }
+
+    @Override
+    public JPAQuery<?> query() {
+        return new TracingJPAQuery<Void>(em);
+    }
+}
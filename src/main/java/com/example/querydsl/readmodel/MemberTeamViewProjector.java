@@ -0,0 +1,231 @@
+package com.example.querydsl.readmodel;
+
+import com.example.querydsl.entity.ReadModelOutbox.Type;
+import com.example.querydsl.event.EntityChangesEvent;
+import com.example.querydsl.event.MemberBulkChangedEvent;
+import com.example.querydsl.event.MemberChangedEvent;
+import com.example.querydsl.event.TeamChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/*
+member_team_view(조회 모델) 갱신
+1. 회원/팀 변경 이벤트(flush 후, 같은 트랜잭션)마다 read_model_outbox 에 "무엇이 바뀌었는지" 기록
+   변경 목록 하나는 batch insert 한 번, 연속된 회원 id 는 범위 한 행
+   save, changeTeam 같은 변경 감지, 팀 이름 변경, 벌크 연산(id 범위) 모두 포함
+2. relay (ReadModelConfig 가 relay-interval 마다 실행) 가 outbox 를 id 순서로 읽어서
+   해당 회원 행을 원본(member left join team)에서 다시 복사하고, 팀 이름 변경은 그 팀 회원 행의 team_name 을 갱신한 뒤
+   처리한 outbox 행을 삭제 (한 트랜잭션)
+3. rebuild : 회원 id 범위별로 다시 복사 (조회 모델 도입 전 데이터, 어긋난 데이터 복구)
+ */
+@Slf4j
+@Component
+public class MemberTeamViewProjector {
+    private static final int IN_CLAUSE_SIZE = 1000;
+    private static final int REBUILD_CHUNK_SIZE = 10_000;
+
+    private static final String INSERT_OUTBOX =
+            "insert into read_model_outbox (type, from_id, to_id, created_at) values (?, ?, ?, ?)";
+    private static final String COPY_MEMBERS =
+            "insert into member_team_view (member_id, username, age, team_id, team_name)" +
+            " select m.member_id, m.username, m.age, m.team_id, t.name" +
+            " from Member m left join Team t on t.id = m.team_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadModelProperties properties;
+
+    public MemberTeamViewProjector(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate,
+                                   PlatformTransactionManager transactionManager, ReadModelProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    // 변경 목록 하나를 outbox batch insert 한 번으로 기록
+    // 회원 id 는 연속된 범위로 묶어서 한 행에 (saveAll 처럼 pooled 시퀀스로 받은 id 는 대부분 연속)
+    @EventListener
+    public void on(EntityChangesEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        Set<Long> teamIds = new LinkedHashSet<>();
+        for (TeamChangedEvent change : event.getTeamChanges()) {
+            // 새 팀에는 아직 회원이 없고, 회원이 들어오면 MemberChangedEvent 로 반영됨
+            if (change.getType() != TeamChangedEvent.Type.INSERTED) {
+                teamIds.add(change.getTeamId());
+            }
+        }
+        for (Long teamId : teamIds) {
+            rows.add(new Object[]{Type.TEAM.name(), teamId, teamId, now});
+        }
+
+        TreeSet<Long> memberIds = new TreeSet<>();
+        for (MemberChangedEvent change : event.getMemberChanges()) {
+            memberIds.add(change.getMemberId());
+        }
+        addMemberRanges(memberIds, now, rows);
+
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_OUTBOX, rows);
+        }
+    }
+
+    // upsert 는 새 id 와 기존 id 가 섞여 있어서 범위 하나로 보내면 테이블 대부분을 다시 복사하게 됨 -> 바뀐 id 만
+    @EventListener
+    public void on(MemberBulkChangedEvent event) {
+        if (!properties.isEnabled() || event.getAffectedRows() == 0) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (event.getType() != MemberBulkChangedEvent.Type.UPSERTED) {
+            jdbcTemplate.update(INSERT_OUTBOX, Type.MEMBER.name(), event.getFromId(), event.getToId(), now);
+            return;
+        }
+        TreeSet<Long> memberIds = new TreeSet<>(event.getInsertedIds());
+        memberIds.addAll(event.getUpdatedIds());
+        List<Object[]> rows = new ArrayList<>();
+        addMemberRanges(memberIds, now, rows);
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_OUTBOX, rows);
+        }
+    }
+
+    // 정렬된 회원 id 를 연속된 범위마다 outbox 한 행으로
+    private void addMemberRanges(SortedSet<Long> memberIds, Timestamp now, List<Object[]> rows) {
+        Long from = null;
+        Long to = null;
+        for (Long id : memberIds) {
+            if (to != null && id == to + 1) {
+                to = id;
+                continue;
+            }
+            if (from != null) {
+                rows.add(new Object[]{Type.MEMBER.name(), from, to, now});
+            }
+            from = id;
+            to = id;
+        }
+        if (from != null) {
+            rows.add(new Object[]{Type.MEMBER.name(), from, to, now});
+        }
+    }
+
+    // 쌓인 outbox 가 relay-batch-size 보다 적어질 때까지 반복
+    public void relayAll() {
+        try {
+            while (relay() >= properties.getRelayBatchSize()) {
+                // 다음 batch
+            }
+        } catch (RuntimeException e) {
+            // 처리하지 못한 outbox 는 남아있으므로 다음 주기에 다시 시도
+            log.warn("read model relay failed", e);
+        }
+    }
+
+    // outbox 를 relay-batch-size 개까지 반영하고 처리한 행 수를 반환
+    public int relay() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<long[]> outbox = jdbcTemplate.query(
+                    "select id, type, from_id, to_id from read_model_outbox order by id limit ?",
+                    (rs, rowNum) -> new long[]{
+                            rs.getLong("id"),
+                            Type.valueOf(rs.getString("type")).ordinal(),
+                            rs.getLong("from_id"),
+                            rs.getLong("to_id")},
+                    properties.getRelayBatchSize());
+            if (outbox.isEmpty()) {
+                return 0;
+            }
+
+            Set<Long> memberIds = new LinkedHashSet<>();
+            Set<Long> teamIds = new LinkedHashSet<>();
+            List<Long> outboxIds = new ArrayList<>(outbox.size());
+            for (long[] row : outbox) {
+                outboxIds.add(row[0]);
+                if (row[1] == Type.TEAM.ordinal()) {
+                    teamIds.add(row[2]);
+                } else if (row[2] == row[3]) {
+                    memberIds.add(row[2]);
+                } else {
+                    copyMemberRange(row[2], row[3]);
+                }
+            }
+
+            for (List<Long> ids : chunks(memberIds)) {
+                MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+                namedJdbcTemplate.update("delete from member_team_view where member_id in (:ids)", params);
+                namedJdbcTemplate.update(COPY_MEMBERS + " where m.member_id in (:ids)", params);
+            }
+            for (List<Long> ids : chunks(teamIds)) {
+                namedJdbcTemplate.update("update member_team_view v" +
+                        " set team_name = (select t.name from Team t where t.id = v.team_id)" +
+                        " where v.team_id in (:ids)", new MapSqlParameterSource("ids", ids));
+            }
+            // 처리 중에 먼저 받은 id 로 늦게 커밋된 outbox 가 있을 수 있으므로 범위가 아니라 읽은 id 만 삭제
+            for (List<Long> ids : chunks(outboxIds)) {
+                namedJdbcTemplate.update("delete from read_model_outbox where id in (:ids)",
+                        new MapSqlParameterSource("ids", ids));
+            }
+            return outbox.size();
+        });
+        return relayed == null ? 0 : relayed;
+    }
+
+    // 조회 모델 전체를 회원 id 범위별로 다시 복사, 범위마다 트랜잭션 하나
+    // 반환값은 복사한 회원 수
+    public long rebuild() {
+        Long maxId = jdbcTemplate.queryForObject("select max(member_id) from Member", Long.class);
+        if (maxId == null) {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update("delete from member_team_view"));
+            return 0;
+        }
+
+        long copied = 0;
+        for (long start = 0; start <= maxId; start += REBUILD_CHUNK_SIZE) {
+            long from = start;
+            Integer rows = transactionTemplate.execute(status ->
+                    copyMemberRange(from, from + REBUILD_CHUNK_SIZE - 1));
+            copied += rows == null ? 0 : rows;
+        }
+        return copied;
+    }
+
+    // 범위의 조회 모델 행을 지우고 원본에서 다시 복사 (삭제된 회원의 행은 사라짐)
+    private int copyMemberRange(long fromId, long toId) {
+        jdbcTemplate.update("delete from member_team_view where member_id between ? and ?", fromId, toId);
+        return jdbcTemplate.update(COPY_MEMBERS + " where m.member_id between ? and ?", fromId, toId);
+    }
+
+    private List<List<Long>> chunks(Set<Long> ids) {
+        return chunks(new ArrayList<>(ids));
+    }
+
+    private List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += IN_CLAUSE_SIZE) {
+            chunks.add(ids.subList(i, Math.min(i + IN_CLAUSE_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.querydsl.readmodel;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "querydsl.read-model")
+public class ReadModelProperties {
+    // 끄면 outbox 를 기록하지 않고 relay 도 돌지 않음 (member_team_view 는 rebuild 로만 갱신)
+    private boolean enabled = false;
+    // outbox 를 읽어서 member_team_view 에 반영하는 주기
+    private Duration relayInterval = Duration.ofSeconds(1);
+    // 한 번에 반영할 outbox 행 수
+    private int relayBatchSize = 500;
+}
@@ -0,0 +1,28 @@
+package com.example.querydsl.repository;
+
+import javax.persistence.EntityManager;
+
+// 대량 저장 시 chunkSize 개마다 flush, clear
+// flush 로 jdbc batch 를 내보내고 clear 로 영속성 컨텍스트(1차 캐시, 스냅샷)가 계속 커지지 않도록 비움
+// clear 는 호출한 쪽이 같은 트랜잭션에서 들고 있던 엔티티도 준영속으로 만들기 때문에 주의
+class BulkInsertSupport {
+    // hibernate.jdbc.batch_size 와 맞춰서 사용
+    static final int DEFAULT_CHUNK_SIZE = 100;
+
+    private BulkInsertSupport() {
+    }
+
+    static <T> int persistInChunks(EntityManager em, Iterable<T> entities, int chunkSize) {
+        int count = 0;
+        for (T entity : entities) {
+            em.persist(entity);
+            if (++count % chunkSize == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+        return count;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.querydsl.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+/*
+pooled 시퀀스(member_seq, team_seq)를 테이블의 현재 최대 id 뒤로 맞춤
+IDENTITY 로 쌓인 기존 데이터가 있는 db 에 ddl-auto=update 로 시퀀스가 새로 만들어지면 1 부터 시작해서
+처음 받아오는 id 들이 기존 pk 와 겹침 -> 시작 시 한 번, 시퀀스 값이 최대 id + allocationSize 보다 작으면 올림
+- 시퀀스를 지원하지 않는 db(MySQL) : hibernate 가 만든 시퀀스 테이블(next_val) 을 update
+- 시퀀스를 지원하는 db : 다음 값을 확인한 뒤 alter sequence ... restart with
+이미 맞춰져 있으면 아무것도 바꾸지 않음 (여러 인스턴스가 동시에 시작해도 값이 줄어들지 않음)
+ */
+@Slf4j
+@Component
+public class IdSequenceInitializer {
+    // 엔티티의 @SequenceGenerator 와 같은 값
+    private static final List<IdSequence> SEQUENCES = List.of(
+            new IdSequence("member_seq", "Member", "member_id", 100),
+            new IdSequence("team_seq", "Team", "id", 100));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Dialect dialect;
+
+    // EntityManagerFactory 를 받아서 ddl-auto 로 시퀀스가 만들어진 뒤에 실행되도록 함
+    public IdSequenceInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory emf) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = emf.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+
+    @PostConstruct
+    public void align() {
+        for (IdSequence sequence : SEQUENCES) {
+            Long maxId = jdbcTemplate.queryForObject(
+                    "select max(" + sequence.idColumn + ") from " + sequence.table, Long.class);
+            if (maxId == null) {
+                continue;
+            }
+            // pooled 는 시퀀스 값 v 를 받으면 v - allocationSize + 1 ~ v 를 할당하므로 한 블록만큼 더 띄움
+            long target = maxId + sequence.allocationSize + 1;
+
+            if (dialect.supportsSequences()) {
+                Long next = jdbcTemplate.queryForObject(dialect.getSequenceNextValString(sequence.name), Long.class);
+                if (next != null && next < target) {
+                    jdbcTemplate.execute("alter sequence " + sequence.name + " restart with " + target);
+                    log.info("{} restarted at {} (max id {})", sequence.name, target, maxId);
+                }
+            } else {
+                int updated = jdbcTemplate.update(
+                        "update " + sequence.name + " set next_val = ? where next_val < ?", target, target);
+                if (updated > 0) {
+                    log.info("{} moved to {} (max id {})", sequence.name, target, maxId);
+                }
+            }
+        }
+    }
+
+    private static class IdSequence {
+        private final String name;
+        private final String table;
+        private final String idColumn;
+        private final int allocationSize;
+
+        IdSequence(String name, String table, String idColumn, int allocationSize) {
+            this.name = name;
+            this.table = table;
+            this.idColumn = idColumn;
+            this.allocationSize = allocationSize;
+        }
+    }
+}
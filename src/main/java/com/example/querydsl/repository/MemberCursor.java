@@ -0,0 +1,49 @@
+package com.example.querydsl.repository;
+
+import com.example.querydsl.dto.MemberCursorSort;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// 커서 페이징에서 주고받는 커서 값
+// 마지막으로 조회한 행의 정렬 키와 member.id 를 담고, 클라이언트에게는 base64 로 인코딩한 문자열만 노출
+@Getter
+class MemberCursor {
+    private static final String DELIMITER = ":";
+
+    private final MemberCursorSort sort;
+    private final Long memberId;
+    private final String sortKey;
+
+    MemberCursor(MemberCursorSort sort, Long memberId, String sortKey) {
+        this.sort = sort;
+        this.memberId = memberId;
+        this.sortKey = sortKey;
+    }
+
+    // 정렬 키는 username 처럼 구분자를 포함할 수 있으므로 항상 마지막에 둔다
+    String encode() {
+        String raw = sort.name() + DELIMITER + memberId + DELIMITER + sortKey;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static MemberCursor decode(String cursor, MemberCursorSort expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(DELIMITER, 3);
+            MemberCursorSort sort = MemberCursorSort.valueOf(parts[0]);
+            if (sort != expectedSort) {
+                throw new IllegalArgumentException("정렬 기준이 다른 커서입니다: " + sort);
+            }
+            return new MemberCursor(sort, Long.valueOf(parts[1]), parts[2]);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("올바르지 않은 커서입니다: " + cursor, e);
+        }
+    }
+
+    int ageKey() {
+        return Integer.parseInt(sortKey);
+    }
+}
@@ -1,36 +1,127 @@
 package com.example.querydsl.repository;
 
+import com.example.querydsl.dto.CursorSlice;
+import com.example.querydsl.dto.MemberCursorSort;
 import com.example.querydsl.dto.MemberSearchCondition;
 import com.example.querydsl.dto.MemberTeamDto;
+import com.example.querydsl.dto.MemberUpsertDto;
 import com.example.querydsl.dto.QMemberTeamDto;
+import com.example.querydsl.dto.UpsertResult;
+import com.example.querydsl.dto.UsernameSearchMode;
 import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import com.example.querydsl.event.MemberBulkChangedEvent;
+import com.example.querydsl.search.UsernameGrams;
 import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.CaseBuilder;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.jpa.QueryHints;
+import org.hibernate.jpa.TypedParameterValue;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import javax.persistence.EntityManager;
+import javax.persistence.FlushModeType;
+import javax.persistence.LockModeType;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static com.example.querydsl.entity.QMember.member;
+import static com.example.querydsl.entity.QMemberTeamView.memberTeamView;
+import static com.example.querydsl.entity.QMemberUsernameGram.memberUsernameGram;
 import static com.example.querydsl.entity.QTeam.team;
 
 @Repository
 public class MemberRepository {
+    // 스트림 조회 시 한 번에 가져올 행 수 기본값 (MySQL 외의 db)
+    public static final int DEFAULT_STREAM_FETCH_SIZE = 1000;
+    // MySQL Connector/J 는 fetchSize 가 Integer.MIN_VALUE 일 때만 한 행씩 읽는 스트리밍 결과셋을 사용
+    // (양수 fetchSize 는 url 에 useCursorFetch=true 를 준 경우에만 적용됨)
+    public static final int MYSQL_STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+    // 스트림으로 읽은 엔티티를 영속성 컨텍스트에서 분리하는 주기
+    public static final int DEFAULT_STREAM_DETACH_INTERVAL = 1000;
+    // in 절 하나에 넣을 값 개수
+    public static final int IN_CLAUSE_SIZE = 1000;
+    // upsert 한 문장에 넣을 회원 수 (파라미터 4개씩)
+    public static final int UPSERT_CHUNK_SIZE = 500;
+    // 이름 타입어헤드 검색 결과 최대 개수 (더 크게 요청해도 여기까지)
+    public static final int MAX_USERNAME_SEARCH_LIMIT = 100;
+    // 조회 메서드의 @Transactional(readOnly = true) 는 querydsl.routing.enabled 일 때 복제본으로 보내는 기준
+    // (쓰기 트랜잭션 안에서 호출되면 그 트랜잭션에 참여하므로 primary 에서 실행)
+
     private final EntityManager em;
     private final JPAQueryFactory queryFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MemberSearchTemplates searchTemplates;
+    // 스트림, 읽기 전용 조회의 fetchSize 기본값 - MySQL 이면 스트리밍 결과셋, 아니면 DEFAULT_STREAM_FETCH_SIZE
+    private final int defaultFetchSize;
 
-    public MemberRepository(EntityManager em) {
+    // JPAQueryFactory 는 QuerydslConfig 에서 빈으로 등록한 것을 공유
+    public MemberRepository(EntityManager em, JPAQueryFactory queryFactory, ApplicationEventPublisher eventPublisher,
+                            MemberSearchTemplates searchTemplates) {
         this.em = em;
-        this.queryFactory = new JPAQueryFactory(em);
+        this.queryFactory = queryFactory;
+        this.eventPublisher = eventPublisher;
+        this.searchTemplates = searchTemplates;
+        this.defaultFetchSize = defaultFetchSize(em);
+    }
+
+    // MySQL Connector/J 는 useCursorFetch 없이 양수 fetchSize 를 무시하고 결과 전체를 메모리에 올림
+    // 다른 db(h2 등)는 음수 fetchSize 를 허용하지 않으므로 MySQL 일 때만 스트리밍 값 사용
+    private static int defaultFetchSize(EntityManager em) {
+        Dialect dialect = em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect();
+        return dialect instanceof MySQLDialect ? MYSQL_STREAMING_FETCH_SIZE : DEFAULT_STREAM_FETCH_SIZE;
     }
 
     public void save(Member member) {
         em.persist(member);
     }
 
+    // 대량 저장
+    // save 를 반복하면 영속성 컨텍스트에 모든 엔티티와 스냅샷이 쌓이고 flush 때 한꺼번에 dirty checking
+    // chunk 단위로 flush(jdbc batch insert) 후 clear 해서 메모리를 일정하게 유지
+    // 회원이 참조하는 팀은 미리 저장되어 있어야 함 (TeamRepository.saveAll)
+    public int saveAll(Collection<Member> members) {
+        return saveAll(members, BulkInsertSupport.DEFAULT_CHUNK_SIZE);
+    }
+
+    public int saveAll(Collection<Member> members, int chunkSize) {
+        return BulkInsertSupport.persistInChunks(em, members, chunkSize);
+    }
+
     // Optional로 반환하는 이유는 memberId에 해당하는 Member 값을 이용해 Member Entity가 없을 수도 있기 때문
     public Optional<Member> findById(Long id) {
         Member findMember = em.find(Member.class, id);
@@ -38,11 +129,13 @@ public class MemberRepository {
         return Optional.ofNullable(findMember);
     }
 
+    @Transactional(readOnly = true)
     public List<Member> findAll_jpql() {
         return em.createQuery("select m from Member m", Member.class)
                 .getResultList();
     }
 
+    @Transactional(readOnly = true)
     public List<Member> findAll_queryDsl() {
         return queryFactory
                 .selectFrom(member)
@@ -50,6 +143,98 @@ public class MemberRepository {
     }
 
 
+    /*
+    스트림 조회
+    fetch(), getResultList() 는 전체 결과를 리스트로 만들고 영속성 컨텍스트에 스냅샷까지 쌓아두므로
+    전체 회원을 훑는 배치에서는 힙이 결과 크기만큼 커짐
+    getResultStream() 은 forward-only 커서로 한 묶음(fetchSize)씩 읽어옴
+    - 커넥션을 계속 잡고 있으므로 트랜잭션 안에서 사용하고 try-with-resources 로 반드시 닫아야 함
+    - MySQL 스트리밍 결과셋이 열려 있는 동안 같은 커넥션으로 다른 쿼리를 실행할 수 없어서 team 은 fetch join
+     */
+    public Stream<Member> streamAll_queryDsl() {
+        return streamAll_queryDsl(defaultFetchSize, DEFAULT_STREAM_DETACH_INTERVAL);
+    }
+
+    public Stream<Member> streamAll_queryDsl(int fetchSize, int detachInterval) {
+        Stream<Member> stream = queryFactory
+                .selectFrom(member)
+                .leftJoin(member.team, team).fetchJoin()
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .stream();
+        return detachEvery(stream, detachInterval);
+    }
+
+    public Stream<Member> streamAll_jpql(int fetchSize, int detachInterval) {
+        Stream<Member> stream = em.createQuery("select m from Member m left join fetch m.team", Member.class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+        return detachEvery(stream, detachInterval);
+    }
+
+    // dto 프로젝션은 엔티티를 영속성 컨텍스트에 올리지 않으므로 분리할 필요 없음
+    public Stream<MemberTeamDto> streamSearchByWhere(MemberSearchCondition condition, int fetchSize) {
+        return queryFactory
+                .select(memberTeamDto())
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(
+                        usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe())
+                )
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .stream();
+    }
+
+    // interval 개씩 읽을 때마다 이미 넘겨준 엔티티를 detach 해서 영속성 컨텍스트 크기를 일정하게 유지
+    // 지금 넘겨줄 엔티티는 분리하지 않으므로 호출하는 쪽에서는 항상 영속 상태의 엔티티를 받음
+    private Stream<Member> detachEvery(Stream<Member> stream, int interval) {
+        List<Member> passed = new ArrayList<>(interval);
+        return stream.map(m -> {
+            if (passed.size() >= interval) {
+                // team 은 여러 회원이 같은 인스턴스를 공유하므로 분리하지 않음 (팀 수만큼만 남음)
+                passed.forEach(em::detach);
+                passed.clear();
+            }
+            passed.add(m);
+            return m;
+        });
+    }
+
+    /*
+    읽기 전용 조회
+    조회한 엔티티마다 hibernate 는 변경 감지용 스냅샷(로딩 시점 값의 복사본)을 같이 보관함 -> 힙 사용량 약 2배
+    - readOnly 트랜잭션 : 세션 기본값을 읽기 전용으로, flush 모드를 MANUAL 로 바꿈
+    - org.hibernate.readOnly 힌트 : 이미 열린 쓰기 트랜잭션 안에서 호출되어도 이 쿼리 결과는 스냅샷을 만들지 않음
+    - flush 모드 COMMIT : 조회 전에 자동 flush(변경 감지)를 하지 않음
+    반환된 엔티티를 수정해도 db 에 반영되지 않음
+     */
+    @Transactional(readOnly = true)
+    public List<Member> findAll_readOnly() {
+        return findAll_readOnly(defaultFetchSize);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Member> findAll_readOnly(int fetchSize) {
+        return readOnly(queryFactory.selectFrom(member), fetchSize)
+                .fetch();
+    }
+
+    @Transactional(readOnly = true)
+    public List<Member> findByname_readOnly(String username) {
+        return readOnly(queryFactory.selectFrom(member), defaultFetchSize)
+                .where(member.username.eq(username))
+                .fetch();
+    }
+
+    private <T> JPAQuery<T> readOnly(JPAQuery<T> query, int fetchSize) {
+        return query
+                .setHint(QueryHints.HINT_READONLY, true)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setFlushMode(FlushModeType.COMMIT);
+    }
+
     // 유저 이름으로 조회
     // jpql 사용
     // 쿼리문에 직접 세팅해야 함
@@ -69,12 +254,104 @@ public class MemberRepository {
                 .fetch();
     }
 
+    // id 목록으로 한 번에 조회 (MemberBatchLoader 에서 사용)
+    // MySQL 파라미터 수 제한과 쿼리 크기를 고려해서 in 절은 IN_CLAUSE_SIZE 개씩 나눠서 실행
+    // 트랜잭션 밖에서 사용할 수 있도록 team 은 fetch join
+    @Transactional(readOnly = true)
+    public List<Member> findAllByIds(Collection<Long> ids) {
+        List<Member> result = new ArrayList<>(ids.size());
+        for (List<Long> chunk : inClauseChunks(ids)) {
+            result.addAll(queryFactory
+                    .selectFrom(member)
+                    .leftJoin(member.team, team).fetchJoin()
+                    .where(member.id.in(chunk))
+                    .fetch());
+        }
+        return result;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Member> findAllByUsernames(Collection<String> usernames) {
+        List<Member> result = new ArrayList<>(usernames.size());
+        for (List<String> chunk : inClauseChunks(usernames)) {
+            result.addAll(queryFactory
+                    .selectFrom(member)
+                    .leftJoin(member.team, team).fetchJoin()
+                    .where(member.username.in(chunk))
+                    .fetch());
+        }
+        return result;
+    }
+
+    private <T> List<List<T>> inClauseChunks(Collection<T> values) {
+        List<T> list = new ArrayList<>(values);
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < list.size(); i += IN_CLAUSE_SIZE) {
+            chunks.add(list.subList(i, Math.min(i + IN_CLAUSE_SIZE, list.size())));
+        }
+        return chunks;
+    }
+
+    // jpql 직접 작성
+    // 조건마다 문자열을 이어붙이고 파라미터도 따로 세팅해야 함 -> 오타는 런타임에야 발견
+    @Transactional(readOnly = true)
+    public List<MemberTeamDto> searchByJpql(MemberSearchCondition condition) {
+        StringBuilder jpql = new StringBuilder(
+                "select new com.example.querydsl.dto.MemberTeamDto(m.id, m.username, m.age, t.id, t.name)" +
+                " from Member m left join m.team t where 1 = 1");
+        if (StringUtils.hasText(condition.getUsername())) {
+            jpql.append(" and m.username = :username");
+        }
+        if (StringUtils.hasText(condition.getTeamName())) {
+            jpql.append(" and t.name = :teamName");
+        }
+        if (condition.getAgeGoe() != null) {
+            jpql.append(" and m.age >= :ageGoe");
+        }
+        if (condition.getAgeLoe() != null) {
+            jpql.append(" and m.age <= :ageLoe");
+        }
+
+        TypedQuery<MemberTeamDto> query = em.createQuery(jpql.toString(), MemberTeamDto.class);
+        if (StringUtils.hasText(condition.getUsername())) {
+            query.setParameter("username", condition.getUsername());
+        }
+        if (StringUtils.hasText(condition.getTeamName())) {
+            query.setParameter("teamName", condition.getTeamName());
+        }
+        if (condition.getAgeGoe() != null) {
+            query.setParameter("ageGoe", condition.getAgeGoe());
+        }
+        if (condition.getAgeLoe() != null) {
+            query.setParameter("ageLoe", condition.getAgeLoe());
+        }
+        return query.getResultList();
+    }
+
     // builder 패턴
     // builder.and는 동적으로 조건 추가하는데 사용되는 메소드
     // jpql 보다 가독성 좋지만 해당 builder 다른 곳에서 재사용 불가
+    @Transactional(readOnly = true)
     public List<MemberTeamDto> searchByBuilder(MemberSearchCondition condition) {
-        // 여러 조건을 논리적으로 결합하기 위한 컨테이너 역할
-        // 빌더에 조건들을 추가
+        BooleanBuilder builder = searchBuilder(condition);
+
+        /*
+        left join -> 왼쪽 테이블 중심으로 오른쪽 테이블 매치시킴
+        왼쪽 테이블의 레코드 하나에 오른쪽 테이블 레코드 여러개 일치할 경우
+        해당 왼쪽 레코드 여러번 표시
+        왼쪽은 무조건 표시하고 매치되는 레코드 오른쪽에 없으면 null 표시
+        밑에서는 member.team을 기준으로 테이블 생성
+         */
+        JPAQuery<MemberTeamDto> query = joinTeam(queryFactory
+                .select(memberTeamDto())
+                .from(member), condition.getTeamName())
+                .where(builder);
+        return teamNameQueryCache(query, condition.getTeamName()).fetch();
+    }
+
+    // 여러 조건을 논리적으로 결합하기 위한 컨테이너 역할
+    // 빌더에 조건들을 추가
+    private BooleanBuilder searchBuilder(MemberSearchCondition condition) {
         BooleanBuilder builder = new BooleanBuilder();
         // StringUtils.hasText : 값이 있으면 true, 공백이나 null일 경우 false 반환
         if (StringUtils.hasText(condition.getUsername())) {
@@ -87,48 +364,540 @@ public class MemberRepository {
             builder.and(member.age.goe(condition.getAgeGoe()));
         }
         if (condition.getAgeLoe() != null) {
-            builder.and(member.age.goe(condition.getAgeLoe()));
+            builder.and(member.age.loe(condition.getAgeLoe()));
         }
-
-        /*
-        left join -> 왼쪽 테이블 중심으로 오른쪽 테이블 매치시킴
-        왼쪽 테이블의 레코드 하나에 오른쪽 테이블 레코드 여러개 일치할 경우
-        해당 왼쪽 레코드 여러번 표시
-        왼쪽은 무조건 표시하고 매치되는 레코드 오른쪽에 없으면 null 표시
-        밑에서는 member.team을 기준으로 테이블 생성
-         */
-        return queryFactory
-                .select(new QMemberTeamDto(
-                        member.id.as("memberId"),
-                        member.username,
-                        member.age,
-                        team.id.as("teamId"),
-                        team.name.as("teamName")))
-                .from(member)
-                .leftJoin(member.team, team)
-                .where(builder)
-                .fetch();
+        return builder;
     }
 
     // where 패턴
     // where 패턴의 장점은 여러 메소드로 나눠서 각각의 메서드를 혼합해 사용할 수 있고, 재사용성 높아짐
+    @Transactional(readOnly = true)
     public List<MemberTeamDto> searchByWhere(MemberSearchCondition condition) {
+        JPAQuery<MemberTeamDto> query = joinTeam(queryFactory
+                .select(memberTeamDto())
+                .from(member), condition.getTeamName())
+                .where(
+                        usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe())
+                );
+        return teamNameQueryCache(query, condition.getTeamName()).fetch();
+    }
+
+    // 템플릿 검색 - searchByWhere 와 같은 결과
+    // 조건 모양별로 만들어 둔 jpql 에 파라미터만 바인딩 (MemberSearchTemplates)
+    // 요청이 많은 곳에서 querydsl 쿼리 생성, 직렬화 비용을 줄일 때 사용
+    @Transactional(readOnly = true)
+    public List<MemberTeamDto> searchByTemplate(MemberSearchCondition condition) {
+        int shape = MemberSearchTemplates.shape(condition);
+        TypedQuery<MemberTeamDto> query = em.createQuery(searchTemplates.searchJpql(shape), MemberTeamDto.class);
+        MemberSearchTemplates.bind(query, condition, shape);
+        if (StringUtils.hasText(condition.getTeamName())) {
+            query.setHint(QueryHints.HINT_CACHEABLE, true)
+                    .setHint(QueryHints.HINT_CACHE_REGION, "member-by-team-name");
+        }
+        return query.getResultList();
+    }
+
+    // countByWhere 와 같은 결과
+    @Transactional(readOnly = true)
+    public long countByTemplate(MemberSearchCondition condition) {
+        int shape = MemberSearchTemplates.shape(condition);
+        TypedQuery<Long> query = em.createQuery(searchTemplates.countJpql(shape), Long.class);
+        MemberSearchTemplates.bind(query, condition, shape);
+        return query.getSingleResult();
+    }
+
+    // 조회 모델 검색 - member_team_view 하나만 읽음 (team 조인 없음)
+    // outbox relay 주기만큼 늦게 반영될 수 있으므로 방금 쓴 값을 바로 읽어야 하는 곳에서는 searchByWhere 사용
+    @Transactional(readOnly = true)
+    public List<MemberTeamDto> searchByReadModel(MemberSearchCondition condition) {
         return queryFactory
                 .select(new QMemberTeamDto(
-                        member.id.as("memberId"),
-                        member.username,
-                        member.age, //
-                        member.id.as("teamId"),
-                        team.name.as("teamName")))
+                        memberTeamView.memberId,
+                        memberTeamView.username,
+                        memberTeamView.age,
+                        memberTeamView.teamId,
+                        memberTeamView.teamName))
+                .from(memberTeamView)
+                .where(
+                        StringUtils.hasText(condition.getUsername()) ? memberTeamView.username.eq(condition.getUsername()) : null,
+                        StringUtils.hasText(condition.getTeamName()) ? memberTeamView.teamName.eq(condition.getTeamName()) : null,
+                        condition.getAgeGoe() != null ? memberTeamView.age.goe(condition.getAgeGoe()) : null,
+                        condition.getAgeLoe() != null ? memberTeamView.age.loe(condition.getAgeLoe()) : null
+                )
+                .fetch();
+    }
+
+    // 팀 이름 조건이 있는 검색은 대시보드에서 같은 조건으로 반복 조회되므로 쿼리 캐시 사용
+    // Member, Team 테이블이 바뀌면 hibernate 가 해당 영역의 결과를 무효화
+    private <T> JPAQuery<T> teamNameQueryCache(JPAQuery<T> query, String teamName) {
+        if (StringUtils.hasText(teamName)) {
+            query.setHint(QueryHints.HINT_CACHEABLE, true)
+                    .setHint(QueryHints.HINT_CACHE_REGION, "member-by-team-name");
+        }
+        return query;
+    }
+
+    // 페이징 - where 패턴
+    // 컨텐츠 쿼리와 카운트 쿼리를 분리해서 실행
+    @Transactional(readOnly = true)
+    public Page<MemberTeamDto> searchPageByWhere(MemberSearchCondition condition, Pageable pageable) {
+        List<MemberTeamDto> content = searchContentByWhere(condition, pageable);
+
+        // 첫 페이지인데 컨텐츠가 페이지 크기보다 적거나, 마지막 페이지라면
+        // 전체 개수를 컨텐츠만으로 알 수 있으므로 카운트 쿼리를 실행하지 않음
+        return PageableExecutionUtils.getPage(content, pageable, () -> countByWhere(condition));
+    }
+
+    // 페이지 컨텐츠 쿼리와 카운트 쿼리를 따로 (동시에) 실행할 수 있도록 분리 (MemberAsyncService)
+    @Transactional(readOnly = true)
+    public List<MemberTeamDto> searchContentByWhere(MemberSearchCondition condition, Pageable pageable) {
+        return joinTeam(queryFactory
+                .select(memberTeamDto())
+                .from(member), condition.getTeamName())
+                .where(
+                        usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe())
+                )
+                .orderBy(orderSpecifiers(pageable.getSort()))
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+    }
+
+    @Transactional(readOnly = true)
+    public long countByWhere(MemberSearchCondition condition) {
+        Long count = searchCountQuery(condition,
+                usernameEq(condition.getUsername()),
+                teamNameEq(condition.getTeamName()),
+                ageGoe(condition.getAgeGoe()),
+                ageLoe(condition.getAgeLoe()))
+                .fetchOne();
+        return count == null ? 0 : count;
+    }
+
+    // 페이징 - builder 패턴
+    @Transactional(readOnly = true)
+    public Page<MemberTeamDto> searchPageByBuilder(MemberSearchCondition condition, Pageable pageable) {
+        List<MemberTeamDto> content = searchContentByBuilder(condition, pageable);
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> countByBuilder(condition));
+    }
+
+    // searchContentByWhere 와 같은 이유로 분리 (MemberAsyncService)
+    @Transactional(readOnly = true)
+    public List<MemberTeamDto> searchContentByBuilder(MemberSearchCondition condition, Pageable pageable) {
+        return joinTeam(queryFactory
+                .select(memberTeamDto())
+                .from(member), condition.getTeamName())
+                .where(searchBuilder(condition))
+                .orderBy(orderSpecifiers(pageable.getSort()))
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+    }
+
+    @Transactional(readOnly = true)
+    public long countByBuilder(MemberSearchCondition condition) {
+        Long count = searchCountQuery(condition, searchBuilder(condition)).fetchOne();
+        return count == null ? 0 : count;
+    }
+
+    // 커서(keyset) 페이징
+    // offset 은 앞의 행을 모두 읽고 버리기 때문에 뒤 페이지로 갈수록 느려짐
+    // 마지막으로 본 (정렬 키, member.id) 다음부터 읽으면 몇 번째 페이지든 인덱스에서 바로 시작 가능
+    // cursor 가 null 이면 첫 페이지
+    @Transactional(readOnly = true)
+    public CursorSlice<MemberTeamDto> searchByCursor(MemberSearchCondition condition, MemberCursorSort sort,
+                                                     String cursor, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("페이지 크기는 1 이상이어야 합니다: " + size);
+        }
+        MemberCursor after = cursor == null ? null : MemberCursor.decode(cursor, sort);
+
+        // 다음 페이지 존재 여부 확인을 위해 하나 더 조회
+        List<MemberTeamDto> content = queryFactory
+                .select(memberTeamDto())
                 .from(member)
                 .leftJoin(member.team, team)
                 .where(
                         usernameEq(condition.getUsername()),
                         teamNameEq(condition.getTeamName()),
                         ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
+                        ageLoe(condition.getAgeLoe()),
+                        // username 은 null 일 수 있는데 null 은 비교 연산으로 커서를 이어갈 수 없으므로 제외
+                        sort.isUsername() ? member.username.isNotNull() : null,
+                        afterCursor(sort, after)
                 )
+                .orderBy(cursorOrder(sort))
+                .limit(size + 1)
                 .fetch();
+
+        if (content.size() <= size) {
+            return new CursorSlice<>(content, null);
+        }
+
+        content = new ArrayList<>(content.subList(0, size));
+        MemberTeamDto last = content.get(size - 1);
+        String sortKey = sort.isUsername() ? last.getUsername() : String.valueOf(last.getAge());
+        return new CursorSlice<>(content, new MemberCursor(sort, last.getMemberId(), sortKey).encode());
+    }
+
+    // (정렬 키 > 마지막 키) or (정렬 키 = 마지막 키 and id > 마지막 id), 내림차순이면 부등호 반대
+    private BooleanExpression afterCursor(MemberCursorSort sort, MemberCursor after) {
+        if (after == null) {
+            return null;
+        }
+
+        Long lastId = after.getMemberId();
+        BooleanExpression idAfter = sort.isAscending() ? member.id.gt(lastId) : member.id.lt(lastId);
+
+        if (sort.isUsername()) {
+            String lastName = after.getSortKey();
+            BooleanExpression keyAfter = sort.isAscending()
+                    ? member.username.gt(lastName) : member.username.lt(lastName);
+            return keyAfter.or(member.username.eq(lastName).and(idAfter));
+        }
+
+        int lastAge = after.ageKey();
+        BooleanExpression keyAfter = sort.isAscending() ? member.age.gt(lastAge) : member.age.lt(lastAge);
+        return keyAfter.or(member.age.eq(lastAge).and(idAfter));
+    }
+
+    private OrderSpecifier<?>[] cursorOrder(MemberCursorSort sort) {
+        Order direction = sort.isAscending() ? Order.ASC : Order.DESC;
+        if (sort.isUsername()) {
+            return new OrderSpecifier[]{
+                    new OrderSpecifier<>(direction, member.username), new OrderSpecifier<>(direction, member.id)};
+        }
+        return new OrderSpecifier[]{
+                new OrderSpecifier<>(direction, member.age), new OrderSpecifier<>(direction, member.id)};
+    }
+
+    /*
+    회원 이름 타입어헤드 검색, 최대 limit 건
+    - STARTS_WITH : idx_member_username 순서대로 읽다가 limit 에서 멈춤 (정확히 일치하는 이름이 가장 먼저)
+    - CONTAINS : 검색어의 3-gram 을 모두 가진 회원 id 를 색인에서 찾고(후보), 실제로 포함하는지 다시 확인
+      정확히 일치 > 앞부분 일치 > 나머지, 같으면 짧은 이름 순
+      검색어가 3글자보다 짧으면 gram 을 만들 수 없으므로 STARTS_WITH 로 검색
+    대소문자는 두 방식 모두 username 컬럼의 collation 으로 비교 (MySQL 기본 collation 은 대소문자 무시)
+    - lower(username) 로 비교하면 STARTS_WITH 가 idx_member_username 범위 검색을 못함
+    - gram 은 소문자라서 대소문자를 무시한 후보 -> 대소문자를 구분하는 db 에서는 다시 확인할 때 걸러짐
+    limit 은 1 ~ MAX_USERNAME_SEARCH_LIMIT (넘으면 MAX_USERNAME_SEARCH_LIMIT 건)
+     */
+    @Transactional(readOnly = true)
+    public List<MemberTeamDto> searchByUsername(String term, UsernameSearchMode mode, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("검색 결과 개수는 1 이상이어야 합니다: " + limit);
+        }
+        if (!StringUtils.hasText(term)) {
+            return Collections.emptyList();
+        }
+
+        JPAQuery<MemberTeamDto> query = queryFactory
+                .select(memberTeamDto())
+                .from(member)
+                .leftJoin(member.team, team);
+
+        List<String> grams = UsernameGrams.of(term);
+        if (mode == UsernameSearchMode.STARTS_WITH || grams.isEmpty()) {
+            query.where(member.username.startsWith(term))
+                    .orderBy(member.username.asc(), member.id.asc());
+        } else {
+            query.where(
+                            member.id.in(JPAExpressions
+                                    .select(memberUsernameGram.memberId)
+                                    .from(memberUsernameGram)
+                                    .where(memberUsernameGram.gram.in(grams))
+                                    .groupBy(memberUsernameGram.memberId)
+                                    .having(memberUsernameGram.gram.count().eq((long) grams.size()))),
+                            member.username.contains(term))
+                    .orderBy(
+                            new CaseBuilder()
+                                    .when(member.username.eq(term)).then(0)
+                                    .when(member.username.startsWith(term)).then(1)
+                                    .otherwise(2).asc(),
+                            member.username.length().asc(),
+                            member.username.asc(),
+                            member.id.asc());
+        }
+
+        return query.limit(Math.min(limit, MAX_USERNAME_SEARCH_LIMIT)).fetch();
+    }
+
+    // 카운트 쿼리는 dto 프로젝션이 필요 없으므로 team 조건이 없을 때는 조인하지 않음
+    // member -> team 은 ManyToOne 이므로 left join 을 빼도 카운트 결과는 같음
+    private JPAQuery<Long> searchCountQuery(MemberSearchCondition condition, Predicate... predicates) {
+        JPAQuery<Long> countQuery = queryFactory
+                .select(member.count())
+                .from(member);
+
+        if (StringUtils.hasText(condition.getTeamName())) {
+            countQuery.join(member.team, team);
+        }
+
+        return countQuery.where(predicates);
+    }
+
+    // 팀 이름 조건이 있으면 팀이 없는 회원은 where 에서 어차피 걸러지므로 inner join 으로 바꿈
+    // left join 은 member 를 먼저 읽어야 해서 팀 이름 인덱스(idx_team_name)에서 시작하는 실행 계획을 쓸 수 없음
+    private <T> JPAQuery<T> joinTeam(JPAQuery<T> query, String teamName) {
+        if (StringUtils.hasText(teamName)) {
+            return query.join(member.team, team);
+        }
+        return query.leftJoin(member.team, team);
+    }
+
+    // Pageable 의 정렬 조건을 querydsl OrderSpecifier 로 변환
+    // 페이지 경계가 흔들리지 않도록 마지막에 member.id 를 붙여 정렬 순서를 고정
+    private OrderSpecifier<?>[] orderSpecifiers(Sort sort) {
+        List<OrderSpecifier<?>> orders = new ArrayList<>();
+        boolean orderedById = false;
+
+        for (Sort.Order order : sort) {
+            Order direction = order.isAscending() ? Order.ASC : Order.DESC;
+            switch (order.getProperty()) {
+                case "memberId":
+                    orders.add(new OrderSpecifier<>(direction, member.id));
+                    orderedById = true;
+                    break;
+                case "username":
+                    orders.add(new OrderSpecifier<>(direction, member.username));
+                    break;
+                case "age":
+                    orders.add(new OrderSpecifier<>(direction, member.age));
+                    break;
+                case "teamName":
+                    orders.add(new OrderSpecifier<>(direction, team.name));
+                    break;
+                default:
+                    throw new IllegalArgumentException("지원하지 않는 정렬 조건입니다: " + order.getProperty());
+            }
+        }
+
+        if (!orderedById) {
+            orders.add(member.id.asc());
+        }
+        return orders.toArray(new OrderSpecifier[0]);
+    }
+
+    /*
+    벌크 연산 (id 범위 하나 = chunk 하나)
+    한 번에 전체를 update 하면 오래 락을 잡으므로 MemberBulkService 가 id 범위를 나눠서 chunk 마다 트랜잭션을 새로 열고 호출
+    update, delete 쿼리는 영속성 컨텍스트를 거치지 않고 db 에 바로 실행되므로
+    실행 전에 flush, 실행 후 clear 해서 영속성 컨텍스트와 db 값이 어긋나지 않게 함
+    update 쿼리에서는 조인을 쓸 수 없으므로 팀 이름 조건은 서브쿼리로 변환
+     */
+
+    // 조건에 맞는 회원의 id 최소, 최대값. 없으면 null
+    public long[] findIdRange(MemberSearchCondition condition) {
+        Tuple range = queryFactory
+                .select(member.id.min(), member.id.max())
+                .from(member)
+                .where(bulkConditions(condition))
+                .fetchOne();
+        if (range == null || range.get(member.id.min()) == null) {
+            return null;
+        }
+        return new long[]{range.get(member.id.min()), range.get(member.id.max())};
+    }
+
+    public long bulkAddAge(MemberSearchCondition condition, int amount, long fromId, long toId) {
+        BooleanExpression[] where = bulkConditions(condition, fromId, toId);
+        Set<Long> teamIds = teamIdsOf(where);
+
+        em.flush();
+        long count = queryFactory
+                .update(member)
+                .set(member.age, member.age.add(amount))
+                .where(where)
+                .execute();
+        em.clear();
+
+        eventPublisher.publishEvent(new MemberBulkChangedEvent(
+                MemberBulkChangedEvent.Type.AGE_CHANGED, fromId, toId, count, teamIds));
+        return count;
+    }
+
+    // teamId 가 null 이면 팀에서 제외
+    public long bulkChangeTeam(MemberSearchCondition condition, Long teamId, long fromId, long toId) {
+        BooleanExpression[] where = bulkConditions(condition, fromId, toId);
+        Set<Long> teamIds = teamIdsOf(where);
+        teamIds.add(teamId);
+
+        em.flush();
+        Team newTeam = teamId == null ? null : em.getReference(Team.class, teamId);
+        long count = queryFactory
+                .update(member)
+                .set(member.team, newTeam)
+                .where(where)
+                .execute();
+        em.clear();
+
+        eventPublisher.publishEvent(new MemberBulkChangedEvent(
+                MemberBulkChangedEvent.Type.TEAM_CHANGED, fromId, toId, count, teamIds));
+        return count;
+    }
+
+    public long bulkDelete(MemberSearchCondition condition, long fromId, long toId) {
+        BooleanExpression[] where = bulkConditions(condition, fromId, toId);
+        Set<Long> teamIds = teamIdsOf(where);
+
+        em.flush();
+        long count = queryFactory
+                .delete(member)
+                .where(where)
+                .execute();
+        em.clear();
+
+        eventPublisher.publishEvent(new MemberBulkChangedEvent(
+                MemberBulkChangedEvent.Type.DELETED, fromId, toId, count, teamIds));
+        return count;
+    }
+
+    /*
+    대량 upsert (username 기준) - 피드로 받은 회원이 있으면 age, team 을 갱신하고 없으면 추가
+    조회 후 save/변경 감지를 한 건씩 하는 대신 chunkSize 건을 insert ... on duplicate key update 한 문장으로 실행
+    1. 그 chunk 의 username 으로 기존 회원 id 를 한 번에 조회 (uk_member_username) -> inserted/updated 개수
+       (MySQL 이 돌려주는 영향받은 행 수로는 추가된 행과 값이 같은 기존 행을 구분할 수 없음)
+    2. 새 회원 id 는 hibernate 의 pooled 시퀀스에서 받음
+    3. Member 를 동기화 대상으로 지정한 네이티브 쿼리라서 hibernate 가 Member 쿼리 캐시를 무효화
+
+    엔티티 이벤트가 발생하지 않으므로 벌크 연산처럼 MemberBulkChangedEvent(UPSERTED, 추가/갱신된 회원 id) 를 chunk 마다 발행
+    조회와 upsert 사이에 다른 트랜잭션이 같은 username 을 추가하면 그 행은 inserted 로 세지만 실제로는 update 됨
+    같은 username 이 여러 번 있으면 마지막 값 사용
+     */
+    @Transactional
+    public UpsertResult upsertAll(Collection<MemberUpsertDto> rows) {
+        return upsertAll(rows, UPSERT_CHUNK_SIZE);
+    }
+
+    @Transactional
+    public UpsertResult upsertAll(Collection<MemberUpsertDto> rows, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunk 크기는 1 이상이어야 합니다: " + chunkSize);
+        }
+        Map<String, MemberUpsertDto> byUsername = new LinkedHashMap<>();
+        for (MemberUpsertDto row : rows) {
+            byUsername.put(row.getUsername(), row);
+        }
+        List<MemberUpsertDto> unique = new ArrayList<>(byUsername.values());
+
+        em.flush();
+        UpsertResult result = new UpsertResult(0, 0);
+        for (int i = 0; i < unique.size(); i += chunkSize) {
+            result = result.plus(upsertChunk(unique.subList(i, Math.min(i + chunkSize, unique.size()))));
+        }
+        em.clear();
+        return result;
+    }
+
+    private UpsertResult upsertChunk(List<MemberUpsertDto> rows) {
+        List<String> usernames = new ArrayList<>(rows.size());
+        for (MemberUpsertDto row : rows) {
+            usernames.add(row.getUsername());
+        }
+
+        // 기존 회원 id, 원래 팀 (팀 통계 등에서 다시 계산할 팀)
+        Map<String, Long> existingIds = new HashMap<>();
+        Set<Long> teamIds = new HashSet<>();
+        for (Tuple tuple : queryFactory
+                .select(member.username, member.id, member.team.id)
+                .from(member)
+                .where(member.username.in(usernames))
+                .fetch()) {
+            existingIds.put(tuple.get(member.username), tuple.get(member.id));
+            teamIds.add(tuple.get(member.team.id));
+        }
+
+        SharedSessionContractImplementor session = em.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator idGenerator = session.getFactory().getMetamodel()
+                .entityPersister(Member.class).getIdentifierGenerator();
+
+        StringBuilder sql = new StringBuilder("insert into Member (member_id, username, age, team_id) values ");
+        List<Object> params = new ArrayList<>(rows.size() * 4);
+        Set<Long> insertedIds = new HashSet<>();
+        for (MemberUpsertDto row : rows) {
+            Long id = existingIds.get(row.getUsername());
+            if (id == null) {
+                id = (Long) idGenerator.generate(session, null);
+                insertedIds.add(id);
+            }
+            teamIds.add(row.getTeamId());
+
+            sql.append(params.isEmpty() ? "(?, ?, ?, ?)" : ", (?, ?, ?, ?)");
+            params.add(id);
+            params.add(row.getUsername());
+            params.add(row.getAge());
+            params.add(new TypedParameterValue(StandardBasicTypes.LONG, row.getTeamId()));
+        }
+        // VALUES(col) 은 MySQL 8.0.20 부터 deprecated 지만 h2(mysql 모드)와 함께 쓸 수 있는 문법
+        sql.append(" on duplicate key update age = values(age), team_id = values(team_id)");
+
+        Query query = em.createNativeQuery(sql.toString());
+        query.unwrap(NativeQuery.class).addSynchronizedEntityClass(Member.class);
+        for (int i = 0; i < params.size(); i++) {
+            query.setParameter(i + 1, params.get(i));
+        }
+        query.executeUpdate();
+
+        // 새 id 와 기존 id 는 섞여 있어서 범위로 보내면 테이블 대부분이 포함됨 -> id 를 그대로 보냄
+        eventPublisher.publishEvent(MemberBulkChangedEvent.upserted(
+                insertedIds, new HashSet<>(existingIds.values()), teamIds));
+        return new UpsertResult(rows.size() - existingIds.size(), existingIds.size());
+    }
+
+    // 벌크 연산 전에 바뀔 회원들이 속한 팀 (팀별 파생 데이터를 다시 계산할 때 사용)
+    // 조회와 update/delete 사이에 다른 트랜잭션이 회원의 팀을 바꾸면 그 팀이 빠지므로
+    // 바뀔 행을 select ... for update 로 미리 잠금 (어차피 뒤의 update 가 잠글 행이라 chunk 범위 밖은 잠그지 않음)
+    // for update 는 distinct 와 함께 쓸 수 없는 db 가 있어서(h2) 중복은 Set 으로 제거
+    private Set<Long> teamIdsOf(BooleanExpression[] where) {
+        return new HashSet<>(queryFactory
+                .select(member.team.id)
+                .from(member)
+                .where(where)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .fetch());
+    }
+
+    private BooleanExpression[] bulkConditions(MemberSearchCondition condition, long fromId, long toId) {
+        BooleanExpression[] where = bulkConditions(condition);
+        BooleanExpression[] ranged = Arrays.copyOf(where, where.length + 1);
+        ranged[where.length] = member.id.between(fromId, toId);
+        return ranged;
+    }
+
+    private BooleanExpression[] bulkConditions(MemberSearchCondition condition) {
+        return new BooleanExpression[]{
+                usernameEq(condition.getUsername()),
+                teamNameIn(condition.getTeamName()),
+                ageGoe(condition.getAgeGoe()),
+                ageLoe(condition.getAgeLoe())
+        };
+    }
+
+    private BooleanExpression teamNameIn(String teamName) {
+        if (StringUtils.hasText(teamName)) {
+            return member.team.id.in(
+                    JPAExpressions
+                            .select(team.id)
+                            .from(team)
+                            .where(team.name.eq(teamName)));
+        }
+        return null;
+    }
+
+    private QMemberTeamDto memberTeamDto() {
+        return new QMemberTeamDto(
+                member.id.as("memberId"),
+                member.username,
+                member.age,
+                team.id.as("teamId"),
+                team.name.as("teamName"));
     }
 
     private BooleanExpression usernameEq(String username) {
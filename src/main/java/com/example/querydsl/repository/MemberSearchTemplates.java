@@ -0,0 +1,143 @@
+package com.example.querydsl.repository;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Query;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+검색 조건 모양별 jpql 템플릿
+- MemberSearchCondition 의 조건 4개가 있고 없음에 따라 쿼리 모양은 16가지 뿐
+- 모양(비트마스크)별로 jpql 문자열을 한 번만 만들어 두고, 이후에는 파라미터만 바인딩
+  -> querydsl 표현식 트리 생성, jpql 직렬화를 건너뜀
+- 같은 문자열이 반복되므로 hibernate 의 쿼리 계획 캐시(QueryPlanCache)에서 hql 파싱, sql 변환 결과를 재사용
+jpql 은 MemberRepository.searchByWhere / countByWhere 와 같은 쿼리 (팀 이름 조건이 있으면 inner join)
+ */
+@Component
+public class MemberSearchTemplates {
+    static final int USERNAME = 1;
+    static final int TEAM_NAME = 1 << 1;
+    static final int AGE_GOE = 1 << 2;
+    static final int AGE_LOE = 1 << 3;
+    static final int SHAPES = 1 << 4;
+
+    private final AtomicReferenceArray<String> searchTemplates = new AtomicReferenceArray<>(SHAPES);
+    private final AtomicReferenceArray<String> countTemplates = new AtomicReferenceArray<>(SHAPES);
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public MemberSearchTemplates(MeterRegistry registry, EntityManagerFactory emf) {
+        this.hits = Counter.builder("member.search.template.requests").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("member.search.template.requests").tag("result", "miss").register(registry);
+
+        // 템플릿이 적중해도 hibernate 계획 캐시가 작으면 다시 변환하므로 함께 확인
+        // (hibernate.generate_statistics 가 꺼져 있으면 0)
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        registry.gauge("member.search.template.plan.cache", Tags.of("result", "hit"),
+                statistics, Statistics::getQueryPlanCacheHitCount);
+        registry.gauge("member.search.template.plan.cache", Tags.of("result", "miss"),
+                statistics, Statistics::getQueryPlanCacheMissCount);
+    }
+
+    public static int shape(MemberSearchCondition condition) {
+        int shape = 0;
+        if (StringUtils.hasText(condition.getUsername())) {
+            shape |= USERNAME;
+        }
+        if (StringUtils.hasText(condition.getTeamName())) {
+            shape |= TEAM_NAME;
+        }
+        if (condition.getAgeGoe() != null) {
+            shape |= AGE_GOE;
+        }
+        if (condition.getAgeLoe() != null) {
+            shape |= AGE_LOE;
+        }
+        return shape;
+    }
+
+    public String searchJpql(int shape) {
+        return template(searchTemplates, shape, false);
+    }
+
+    public String countJpql(int shape) {
+        return template(countTemplates, shape, true);
+    }
+
+    public long hitCount() {
+        return (long) hits.count();
+    }
+
+    public long missCount() {
+        return (long) misses.count();
+    }
+
+    // 모양에 있는 조건만 바인딩 (템플릿에 없는 파라미터를 세팅하면 예외)
+    public static void bind(Query query, MemberSearchCondition condition, int shape) {
+        if ((shape & USERNAME) != 0) {
+            query.setParameter("username", condition.getUsername());
+        }
+        if ((shape & TEAM_NAME) != 0) {
+            query.setParameter("teamName", condition.getTeamName());
+        }
+        if ((shape & AGE_GOE) != 0) {
+            query.setParameter("ageGoe", condition.getAgeGoe());
+        }
+        if ((shape & AGE_LOE) != 0) {
+            query.setParameter("ageLoe", condition.getAgeLoe());
+        }
+    }
+
+    // 동시에 처음 만들어도 같은 문자열이 나오므로 먼저 넣은 것을 사용
+    private String template(AtomicReferenceArray<String> templates, int shape, boolean count) {
+        String jpql = templates.get(shape);
+        if (jpql != null) {
+            hits.increment();
+            return jpql;
+        }
+        misses.increment();
+        templates.compareAndSet(shape, null, build(shape, count));
+        return templates.get(shape);
+    }
+
+    private String build(int shape, boolean count) {
+        StringBuilder jpql = new StringBuilder();
+        if (count) {
+            jpql.append("select count(m) from Member m");
+            if ((shape & TEAM_NAME) != 0) {
+                jpql.append(" join m.team t");
+            }
+        } else {
+            jpql.append("select new com.example.querydsl.dto.MemberTeamDto(m.id, m.username, m.age, t.id, t.name)")
+                    .append(" from Member m")
+                    .append((shape & TEAM_NAME) != 0 ? " join m.team t" : " left join m.team t");
+        }
+
+        String separator = " where ";
+        if ((shape & USERNAME) != 0) {
+            jpql.append(separator).append("m.username = :username");
+            separator = " and ";
+        }
+        if ((shape & TEAM_NAME) != 0) {
+            jpql.append(separator).append("t.name = :teamName");
+            separator = " and ";
+        }
+        if ((shape & AGE_GOE) != 0) {
+            jpql.append(separator).append("m.age >= :ageGoe");
+            separator = " and ";
+        }
+        if ((shape & AGE_LOE) != 0) {
+            jpql.append(separator).append("m.age <= :ageLoe");
+        }
+        return jpql.toString();
+    }
+}
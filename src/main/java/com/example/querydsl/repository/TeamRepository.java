@@ -0,0 +1,159 @@
+package com.example.querydsl.repository;
+
+import com.example.querydsl.dto.MemberTeamDto;
+import com.example.querydsl.dto.QMemberTeamDto;
+import com.example.querydsl.dto.QTeamStatisticsDto;
+import com.example.querydsl.dto.TeamRosterDto;
+import com.example.querydsl.dto.TeamStatisticsDto;
+import com.example.querydsl.entity.Team;
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.example.querydsl.entity.QMember.member;
+import static com.example.querydsl.entity.QTeam.team;
+import static com.example.querydsl.entity.QTeamStatistics.teamStatistics;
+
+@Repository
+public class TeamRepository {
+    // in 절 하나에 넣을 id 개수, default_batch_fetch_size 와 같게 맞춤
+    private static final int IN_CLAUSE_SIZE = 1000;
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+
+    public TeamRepository(EntityManager em, JPAQueryFactory queryFactory) {
+        this.em = em;
+        this.queryFactory = queryFactory;
+    }
+
+    public void save(Team team) {
+        em.persist(team);
+    }
+
+    // 대량 저장, MemberRepository.saveAll 참고
+    public int saveAll(Collection<Team> teams) {
+        return BulkInsertSupport.persistInChunks(em, teams, BulkInsertSupport.DEFAULT_CHUNK_SIZE);
+    }
+
+    // Team 은 2차 캐시 대상이라 캐시에 있으면 db 조회 없음
+    public Optional<Team> findById(Long id) {
+        return Optional.ofNullable(em.find(Team.class, id));
+    }
+
+    // 쿼리 캐시 : 같은 이름으로 다시 조회하면 결과(팀 id 목록)를 캐시에서 꺼내고 엔티티는 2차 캐시에서 조회
+    // Team 테이블이 바뀌면 자동으로 무효화
+    public List<Team> findByName(String name) {
+        return queryFactory
+                .selectFrom(team)
+                .where(team.name.eq(name))
+                .setHint(QueryHints.HINT_CACHEABLE, true)
+                .setHint(QueryHints.HINT_CACHE_REGION, "team-by-name")
+                .fetch();
+    }
+
+    /*
+    팀 목록 + 소속 회원 페이징
+    컬렉션(team.members)을 fetch join 하면서 페이징하면 hibernate 가 전체 결과를 메모리로 가져와서 페이징함
+    1. 팀 id 만 페이징해서 조회
+    2. 그 id 들로 팀, 회원을 각각 in 쿼리로 조회 (in 절은 IN_CLAUSE_SIZE 개씩 나눔)
+    엔티티 대신 dto 로 조회해서 영속성 컨텍스트에 아무것도 올리지 않음
+    1, 2번을 한 읽기 트랜잭션에서 실행 (MySQL 은 같은 스냅샷)
+    스냅샷이 없는 db 에서 팀 조회 후 바뀐 회원(페이지에 없는 팀의 회원)은 건너뜀
+     */
+    @Transactional(readOnly = true)
+    public Page<TeamRosterDto> findRosters(Pageable pageable) {
+        List<Long> teamIds = queryFactory
+                .select(team.id)
+                .from(team)
+                .orderBy(team.id.asc())
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        Map<Long, TeamRosterDto> rosters = new LinkedHashMap<>();
+        for (Long teamId : teamIds) {
+            rosters.put(teamId, null);
+        }
+
+        for (List<Long> ids : chunks(teamIds)) {
+            List<Tuple> teams = queryFactory
+                    .select(team.id, team.name)
+                    .from(team)
+                    .where(team.id.in(ids))
+                    .fetch();
+            for (Tuple t : teams) {
+                rosters.put(t.get(team.id), new TeamRosterDto(t.get(team.id), t.get(team.name)));
+            }
+
+            List<MemberTeamDto> members = queryFactory
+                    .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
+                    .from(member)
+                    .join(member.team, team)
+                    .where(team.id.in(ids))
+                    .orderBy(member.id.asc())
+                    .fetch();
+            for (MemberTeamDto m : members) {
+                TeamRosterDto roster = rosters.get(m.getTeamId());
+                if (roster != null) {
+                    roster.getMembers().add(m);
+                }
+            }
+        }
+
+        // 1번과 2번 사이에 삭제된 팀은 제외
+        List<TeamRosterDto> content = new ArrayList<>();
+        for (TeamRosterDto roster : rosters.values()) {
+            if (roster != null) {
+                content.add(roster);
+            }
+        }
+
+        JPAQuery<Long> countQuery = queryFactory
+                .select(team.count())
+                .from(team);
+        return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchOne);
+    }
+
+    private List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += IN_CLAUSE_SIZE) {
+            chunks.add(ids.subList(i, Math.min(i + IN_CLAUSE_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    /*
+    팀별 회원 나이 통계 (count, sum, avg, min, max)
+    member 를 group by 하지 않고 회원 변경 때마다 갱신해둔 team_statistics 를 팀 수만큼만 읽음
+    team_statistics 는 flush 후에 갱신되므로 같은 트랜잭션에서 아직 flush 하지 않은 변경은 반영되지 않음
+     */
+    public List<TeamStatisticsDto> findStatistics() {
+        return queryFactory
+                .select(new QTeamStatisticsDto(
+                        team.id,
+                        team.name,
+                        teamStatistics.memberCount,
+                        teamStatistics.ageSum,
+                        teamStatistics.minAge,
+                        teamStatistics.maxAge))
+                .from(teamStatistics)
+                .join(team).on(team.id.eq(teamStatistics.teamId))
+                .orderBy(team.name.asc(), team.id.asc())
+                .fetch();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.querydsl.routing;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+
+/*
+방금 쓴 사용자의 읽기를 window 동안 primary 로 보내기 위한 마지막 쓰기 시각 (복제 지연 동안 방금 쓴 값을 읽을 수 있도록)
+- 스레드가 아니라 사용자 기준 : 커밋 시각을 응답 쿠키로 내려주고 다음 요청의 쿠키에서 읽음
+  (같은 요청 안의 이후 읽기는 요청 속성으로 바로 확인)
+  스레드에 남기면 다음 요청은 다른 스레드에서 처리되고, 그 스레드를 이어받은 다른 사용자의 요청이 primary 로 가게 됨
+- 실제로 insert, update, delete 를 실행한 트랜잭션만 기록 (ReadYourWritesInspector)
+- 서버가 여러 대여도 같은 값을 쓰도록 System.currentTimeMillis 사용 -> 서버 간 시계 차이만큼 window 가 줄거나 늘어남
+- 요청 밖(비동기 작업 스레드, 배치)에서는 기록하지도 확인하지도 않음
+ */
+public class ReadYourWrites {
+    public static final String COOKIE = "last-write";
+    private static final String ATTRIBUTE = ReadYourWrites.class.getName() + ".LAST_WRITE";
+
+    private final long windowMillis;
+    // 트랜잭션마다 한 번만 afterCommit 을 등록하기 위한 리소스 키
+    private final Object transactionKey = new Object();
+
+    public ReadYourWrites(Duration window) {
+        this.windowMillis = window.toMillis();
+    }
+
+    public boolean isEnabled() {
+        return windowMillis > 0;
+    }
+
+    // 현재 트랜잭션에서 쓰기 sql 이 실행됨 -> 커밋되면 기록
+    public void writeExecuted() {
+        if (!isEnabled() || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(transactionKey)
+                || RequestContextHolder.getRequestAttributes() == null) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(transactionKey, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                markCommitted();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(transactionKey);
+            }
+        });
+    }
+
+    // 현재 요청의 사용자가 window 안에 쓰기를 커밋했는지
+    public boolean isWithinWindow() {
+        if (!isEnabled()) {
+            return false;
+        }
+        long last = lastWriteMillis();
+        return last > 0 && System.currentTimeMillis() - last < windowMillis;
+    }
+
+    private void markCommitted() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        attributes.setAttribute(ATTRIBUTE, now, RequestAttributes.SCOPE_REQUEST);
+
+        // 응답을 이미 쓰기 시작했으면 쿠키를 붙일 수 없음 -> 이번 요청 안에서만 적용
+        HttpServletResponse response = attributes instanceof ServletRequestAttributes
+                ? ((ServletRequestAttributes) attributes).getResponse() : null;
+        if (response != null && !response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(now));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, Duration.ofMillis(windowMillis).getSeconds()));
+            response.addCookie(cookie);
+        }
+    }
+
+    private long lastWriteMillis() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return 0;
+        }
+        Object cached = attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cached instanceof Long) {
+            return (Long) cached;
+        }
+
+        long last = attributes instanceof ServletRequestAttributes
+                ? fromCookie(((ServletRequestAttributes) attributes).getRequest()) : 0;
+        attributes.setAttribute(ATTRIBUTE, last, RequestAttributes.SCOPE_REQUEST);
+        return last;
+    }
+
+    private static long fromCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
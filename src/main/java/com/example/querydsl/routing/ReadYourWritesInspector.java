@@ -0,0 +1,47 @@
+package com.example.querydsl.routing;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Locale;
+
+// hibernate 가 준비하는 sql 중 insert, update, delete(merge) 가 있으면 트랜잭션에 쓰기가 있었다고 기록
+// 엔티티 flush, 벌크 update/delete 쿼리, 네이티브 upsert 모두 여기를 지남 (JdbcTemplate 으로만 쓰는 경우는 잡지 않음)
+// 이미 설정된 inspector(StatementCountingInspector)는 그대로 호출
+public class ReadYourWritesInspector implements StatementInspector {
+    private final StatementInspector delegate;
+    private final ReadYourWrites readYourWrites;
+
+    public ReadYourWritesInspector(StatementInspector delegate, ReadYourWrites readYourWrites) {
+        this.delegate = delegate;
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (isWrite(sql)) {
+            readYourWrites.writeExecuted();
+        }
+        return delegate == null ? sql : delegate.inspect(sql);
+    }
+
+    static boolean isWrite(String sql) {
+        int start = 0;
+        // use_sql_comments 로 붙는 앞쪽 /* ... */ 주석은 건너뜀
+        while (true) {
+            while (start < sql.length() && Character.isWhitespace(sql.charAt(start))) {
+                start++;
+            }
+            if (!sql.startsWith("/*", start)) {
+                break;
+            }
+            int end = sql.indexOf("*/", start + 2);
+            if (end < 0) {
+                return false;
+            }
+            start = end + 2;
+        }
+        String head = sql.substring(start, Math.min(sql.length(), start + 6)).toLowerCase(Locale.ROOT);
+        return head.startsWith("insert") || head.startsWith("update")
+                || head.startsWith("delete") || head.startsWith("merge");
+    }
+}
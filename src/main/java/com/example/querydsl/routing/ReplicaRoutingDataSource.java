@@ -0,0 +1,107 @@
+package com.example.querydsl.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+읽기 전용 트랜잭션(@Transactional(readOnly = true))은 복제본으로, 나머지는 primary 로 보냄
+- 트랜잭션의 readOnly 여부는 커넥션을 얻는 시점에 결정되어 있어야 하므로
+  LazyConnectionDataSourceProxy 로 감싸서 첫 쿼리 때 커넥션을 얻도록 해야 함 (RoutingDataSourceConfig)
+- 트랜잭션 밖의 호출, 읽기-쓰기 트랜잭션(벌크 execute() 포함)과 거기에 참여한 readOnly 메서드는 primary
+- 현재 요청의 사용자가 방금 쓰기를 커밋했으면 readOnly 트랜잭션도 primary (ReadYourWrites)
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+    public static final String PRIMARY = "primary";
+
+    public enum Strategy {
+        ROUND_ROBIN,
+        // 활성 커넥션 + 커넥션 대기 스레드가 가장 적은 복제본 (HikariDataSource 가 아니면 부하 0 으로 봄)
+        LEAST_LOADED
+    }
+
+    private final DataSource primary;
+    private final List<String> replicaKeys;
+    private final List<DataSource> replicas;
+    private final Strategy strategy;
+    private final ReadYourWrites readYourWrites;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    Strategy strategy, ReadYourWrites readYourWrites) {
+        this.primary = primary;
+        this.replicaKeys = new ArrayList<>(replicas.keySet());
+        this.replicas = new ArrayList<>(replicas.values());
+        this.strategy = strategy;
+        this.readYourWrites = readYourWrites;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaKeys.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        if (readYourWrites.isWithinWindow()) {
+            return PRIMARY;
+        }
+        return strategy == Strategy.LEAST_LOADED ? leastLoaded() : roundRobin();
+    }
+
+    private String roundRobin() {
+        return replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+    }
+
+    private String leastLoaded() {
+        int best = 0;
+        int bestLoad = Integer.MAX_VALUE;
+        // 부하가 같으면 라운드 로빈 순서로 골라서 한 복제본에 몰리지 않도록
+        int offset = Math.floorMod(next.getAndIncrement(), replicaKeys.size());
+        for (int i = 0; i < replicaKeys.size(); i++) {
+            int index = (offset + i) % replicaKeys.size();
+            int load = load(replicas.get(index));
+            if (load < bestLoad) {
+                best = index;
+                bestLoad = load;
+            }
+        }
+        return replicaKeys.get(best);
+    }
+
+    private int load(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource) {
+            HikariPoolMXBean pool = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+            if (pool != null) {
+                return pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource replica : replicas) {
+            if (replica instanceof Closeable) {
+                ((Closeable) replica).close();
+            }
+        }
+        if (primary instanceof Closeable) {
+            ((Closeable) primary).close();
+        }
+    }
+}
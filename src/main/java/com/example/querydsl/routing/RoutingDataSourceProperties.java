@@ -0,0 +1,32 @@
+package com.example.querydsl.routing;
+
+import com.example.querydsl.routing.ReplicaRoutingDataSource.Strategy;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "querydsl.routing")
+public class RoutingDataSourceProperties {
+    private boolean enabled = false;
+    // 읽기 전용 트랜잭션을 보낼 복제본 선택 방식 (ROUND_ROBIN, LEAST_LOADED)
+    private Strategy strategy = Strategy.ROUND_ROBIN;
+    // 쓰기를 커밋한 사용자의 읽기를 이 시간 동안 primary 로 보냄 (복제 지연 동안 방금 쓴 값을 읽을 수 있도록)
+    // 커밋 시각은 응답 쿠키로 내려주고 다음 요청에서 읽음 (ReadYourWrites), 0 이면 사용하지 않음
+    private Duration readYourWrites = Duration.ZERO;
+    // 드라이버, 풀 설정은 spring.datasource(.hikari) 를 그대로 사용
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
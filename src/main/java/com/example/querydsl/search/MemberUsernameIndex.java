@@ -0,0 +1,167 @@
+package com.example.querydsl.search;
+
+import com.example.querydsl.event.EntityChangesEvent;
+import com.example.querydsl.event.MemberBulkChangedEvent;
+import com.example.querydsl.event.MemberChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/*
+member_username_gram(회원 이름 3-gram 색인) 관리
+- save, 변경 감지로 이름이 바뀐 경우 : EntityChangesEvent (flush 후, 같은 트랜잭션) 의 회원 변경을 모아서 한 번의 batch 로
+- 벌크 삭제 : MemberBulkChangedEvent 범위 안에서 회원이 없어진 행 삭제
+- 대량 upsert : 새로 추가된 회원(insertedIds) 색인
+- 기존 데이터, 어긋난 색인 : rebuild
+
+이벤트를 받는 시점(flush 후, 커밋 직전)에는 엔티티를 persist 해도 flush 되지 않을 수 있으므로 jdbc batch 로 직접 씀
+(JdbcTemplate 은 JpaTransactionManager 가 묶어둔 같은 커넥션, 같은 트랜잭션 사용)
+ */
+@Component
+public class MemberUsernameIndex {
+    // rebuild 시 한 번에 읽을 회원 수
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+
+    private static final String INSERT = "insert into member_username_gram (gram, member_id) values (?, ?)";
+    private static final String DELETE = "delete from member_username_gram where member_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager em;
+    private final TransactionTemplate transactionTemplate;
+
+    public MemberUsernameIndex(JdbcTemplate jdbcTemplate, EntityManager em, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.em = em;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // 같은 회원이 여러 번 바뀌었으면 마지막 이름만 색인
+    // 이번 목록에서 처음 추가된 회원은 지울 gram 이 없고, 삭제된 회원은 새로 쓸 gram 이 없음
+    @EventListener
+    public void on(EntityChangesEvent event) {
+        Map<Long, UsernameChange> changes = new LinkedHashMap<>();
+        for (MemberChangedEvent change : event.getMemberChanges()) {
+            if (change.getType() == MemberChangedEvent.Type.UPDATED
+                    && Objects.equals(change.getOldUsername(), change.getNewUsername())) {
+                continue;
+            }
+            UsernameChange usernameChange = changes.computeIfAbsent(change.getMemberId(),
+                    id -> new UsernameChange(change.getType() != MemberChangedEvent.Type.INSERTED));
+            usernameChange.username = change.getNewUsername();
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        changes.forEach((memberId, change) -> {
+            if (change.indexed) {
+                deletes.add(new Object[]{memberId});
+            }
+            if (change.username != null) {
+                inserts.add(new Object[]{memberId, change.username});
+            }
+        });
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE, deletes);
+        }
+        insert(inserts);
+    }
+
+    @EventListener
+    public void on(MemberBulkChangedEvent event) {
+        if (event.getAffectedRows() == 0) {
+            return;
+        }
+        switch (event.getType()) {
+            case DELETED:
+                em.createQuery("delete from MemberUsernameGram g" +
+                                " where g.memberId between :fromId and :toId" +
+                                " and g.memberId not in (select m.id from Member m where m.id between :fromId and :toId)")
+                        .setParameter("fromId", event.getFromId())
+                        .setParameter("toId", event.getToId())
+                        .executeUpdate();
+                break;
+            case UPSERTED:
+                // upsert 는 username 을 바꾸지 않으므로 새로 추가된 회원만 색인
+                if (!event.getInsertedIds().isEmpty()) {
+                    insert(em.createQuery("select m.id, m.username from Member m where m.id in :ids", Object[].class)
+                            .setParameter("ids", event.getInsertedIds())
+                            .getResultList());
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    // 색인 전체를 다시 만듦, 회원 id 순서로 chunk 단위로 읽어서 chunk 마다 트랜잭션 하나 (MemberTeamViewProjector.rebuild 와 같은 방식)
+    // 한 트랜잭션으로 하면 전체 회원 수만큼의 undo 와 락을 끝까지 잡고 있음
+    // 진행 중에는 아직 다시 만들지 않은 범위의 색인이 예전 값일 수 있음
+    // 반환값은 색인한 회원 수
+    public long rebuild() {
+        long indexed = 0;
+        long lastId = 0;
+        while (true) {
+            long fromId = lastId;
+            List<Object[]> members = transactionTemplate.execute(status -> rebuildChunk(fromId));
+            if (members == null || members.isEmpty()) {
+                return indexed;
+            }
+            indexed += members.size();
+            lastId = (Long) members.get(members.size() - 1)[0];
+        }
+    }
+
+    // lastId 다음 회원 REBUILD_CHUNK_SIZE 명의 색인을 다시 만듦
+    // 마지막 chunk(회원이 없는 경우 포함)는 그 뒤에 남은 삭제된 회원의 gram 도 지움
+    private List<Object[]> rebuildChunk(long lastId) {
+        List<Object[]> members = em.createQuery(
+                        "select m.id, m.username from Member m where m.id > :lastId order by m.id", Object[].class)
+                .setParameter("lastId", lastId)
+                .setMaxResults(REBUILD_CHUNK_SIZE)
+                .getResultList();
+        if (members.size() < REBUILD_CHUNK_SIZE) {
+            jdbcTemplate.update("delete from member_username_gram where member_id > ?", lastId);
+        } else {
+            jdbcTemplate.update("delete from member_username_gram where member_id > ? and member_id <= ?",
+                    lastId, members.get(members.size() - 1)[0]);
+        }
+        insert(members);
+        return members;
+    }
+
+    // (member_id, username) 목록의 gram 을 한 번의 batch 로 insert
+    private void insert(List<Object[]> members) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Object[] m : members) {
+            for (String gram : UsernameGrams.of((String) m[1])) {
+                rows.add(new Object[]{gram, m[0]});
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, rows);
+        }
+    }
+
+    private static class UsernameChange {
+        // 이번 목록 이전부터 있던 회원 (gram 이 있을 수 있음)
+        private final boolean indexed;
+        // 마지막 이름, 삭제되었으면 null
+        private String username;
+
+        UsernameChange(boolean indexed) {
+            this.indexed = indexed;
+        }
+    }
+}
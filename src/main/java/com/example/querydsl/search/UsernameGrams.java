@@ -0,0 +1,28 @@
+package com.example.querydsl.search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// 이름을 소문자로 바꾼 뒤 연속한 3글자(코드 포인트 기준)씩 자름, 중복 제거
+// 3글자보다 짧으면 빈 목록 -> 부분 검색 대신 앞부분 검색 사용
+public final class UsernameGrams {
+    public static final int GRAM_SIZE = 3;
+
+    private UsernameGrams() {
+    }
+
+    public static List<String> of(String username) {
+        if (username == null) {
+            return List.of();
+        }
+        int[] codePoints = username.toLowerCase(Locale.ROOT).codePoints().toArray();
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= codePoints.length; i++) {
+            grams.add(new String(codePoints, i, GRAM_SIZE));
+        }
+        return new ArrayList<>(grams);
+    }
+}
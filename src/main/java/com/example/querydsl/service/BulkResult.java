@@ -0,0 +1,17 @@
+package com.example.querydsl.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+// 벌크 연산 진행 상황 및 최종 결과
+// lastProcessedId 까지 처리했고 지금까지 affectedRows 건이 바뀜
+@Getter
+@ToString
+@AllArgsConstructor
+public class BulkResult {
+    private final long affectedRows;
+    private final int chunks;
+    private final long lastProcessedId;
+    private final long maxId;
+}
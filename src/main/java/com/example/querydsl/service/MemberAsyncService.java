@@ -0,0 +1,106 @@
+package com.example.querydsl.service;
+
+import com.example.querydsl.config.AsyncRepositoryConfig;
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.dto.MemberTeamDto;
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.repository.MemberRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/*
+MemberRepository 비동기 호출
+- repositoryExecutor(커넥션 풀 크기의 스레드풀)에서 읽기 전용 트랜잭션을 새로 열어서 실행
+  호출한 쪽 트랜잭션의 커밋되지 않은 변경은 보이지 않음
+- 스레드풀이 가득 차면 TaskRejectedException 으로 실패한 future 를 반환 (호출하는 쪽에서 503 등으로 처리)
+- findById 결과는 트랜잭션이 끝난 준영속 엔티티이므로 지연 로딩(getTeam 의 필드 접근)은 불가
+ */
+@Service
+public class MemberAsyncService {
+    private final MemberRepository memberRepository;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate readTx;
+
+    public MemberAsyncService(MemberRepository memberRepository,
+                              @Qualifier(AsyncRepositoryConfig.REPOSITORY_EXECUTOR) ThreadPoolTaskExecutor executor,
+                              PlatformTransactionManager transactionManager) {
+        this.memberRepository = memberRepository;
+        this.executor = executor;
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+    }
+
+    public CompletableFuture<List<MemberTeamDto>> searchByWhere(MemberSearchCondition condition) {
+        return submit(() -> memberRepository.searchByWhere(condition));
+    }
+
+    public CompletableFuture<Optional<Member>> findById(Long id) {
+        return submit(() -> memberRepository.findById(id));
+    }
+
+    // 컨텐츠 쿼리와 카운트 쿼리를 서로 다른 커넥션에서 동시에 실행하고 둘 다 끝나면 합침
+    // 카운트를 기다리려고 풀 스레드를 막으면(join) 풀이 가득 찼을 때 카운트 작업이 큐에서 실행되지 못해 서로 기다리게 됨
+    // 이미 실행 중인 쿼리는 future 를 취소해도 멈추지 않으므로 카운트는 항상 끝까지 실행됨
+    // (컨텐츠만으로 전체 개수를 알 수 있으면 PageableExecutionUtils 가 카운트 결과 대신 그 값을 사용)
+    public CompletableFuture<Page<MemberTeamDto>> searchPageByWhere(MemberSearchCondition condition, Pageable pageable) {
+        return page(pageable,
+                () -> memberRepository.searchContentByWhere(condition, pageable),
+                () -> memberRepository.countByWhere(condition));
+    }
+
+    public CompletableFuture<Page<MemberTeamDto>> searchPageByBuilder(MemberSearchCondition condition, Pageable pageable) {
+        return page(pageable,
+                () -> memberRepository.searchContentByBuilder(condition, pageable),
+                () -> memberRepository.countByBuilder(condition));
+    }
+
+    // 두 작업을 모두 제출한 뒤에 합친 future 를 반환
+    // 하나라도 거절되면 나머지는 취소 (아직 큐에 있으면 실행하지 않고, 실행 중이면 결과를 버림)
+    private CompletableFuture<Page<MemberTeamDto>> page(Pageable pageable,
+                                                        Supplier<List<MemberTeamDto>> contentCall,
+                                                        Supplier<Long> countCall) {
+        CompletableFuture<List<MemberTeamDto>> content = submit(contentCall);
+        if (content.isCompletedExceptionally()) {
+            return content.thenApply(list -> null);
+        }
+        CompletableFuture<Long> count = submit(countCall);
+        if (count.isCompletedExceptionally()) {
+            content.cancel(false);
+            return count.thenApply(total -> null);
+        }
+
+        return content.thenCombine(count, (list, total) -> PageableExecutionUtils.getPage(list, pageable, () -> total));
+    }
+
+    // 실행 전에 future 가 끝났으면(취소) 쿼리를 실행하지 않음
+    private <T> CompletableFuture<T> submit(Supplier<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                if (result.isDone()) {
+                    return;
+                }
+                try {
+                    result.complete(readTx.execute(status -> call.get()));
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+}
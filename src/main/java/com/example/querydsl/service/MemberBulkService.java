@@ -0,0 +1,89 @@
+package com.example.querydsl.service;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.repository.MemberRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Consumer;
+
+/*
+대량 update, delete 를 id 범위(chunk) 단위로 나눠서 실행
+- chunk 마다 트랜잭션을 새로 열고 커밋하므로 락을 오래 잡지 않음
+- 중간에 실패하면 이미 커밋된 chunk 는 남아있음 (진행 상황의 lastProcessedId 부터 다시 실행 가능)
+- 호출하는 쪽의 트랜잭션과 별개로 커밋되므로 트랜잭션 밖에서 호출
+ */
+@Slf4j
+@Service
+public class MemberBulkService {
+    public static final int DEFAULT_CHUNK_SIZE = 10_000;
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate chunkTx;
+    private final TransactionTemplate readTx;
+
+    public MemberBulkService(MemberRepository memberRepository, PlatformTransactionManager transactionManager) {
+        this.memberRepository = memberRepository;
+        this.chunkTx = new TransactionTemplate(transactionManager);
+        this.chunkTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+    }
+
+    public BulkResult addAge(MemberSearchCondition condition, int amount, int chunkSize, Consumer<BulkResult> progress) {
+        return inChunks("addAge", condition, chunkSize, progress,
+                (from, to) -> memberRepository.bulkAddAge(condition, amount, from, to));
+    }
+
+    public BulkResult changeTeam(MemberSearchCondition condition, Long teamId, int chunkSize, Consumer<BulkResult> progress) {
+        return inChunks("changeTeam", condition, chunkSize, progress,
+                (from, to) -> memberRepository.bulkChangeTeam(condition, teamId, from, to));
+    }
+
+    public BulkResult delete(MemberSearchCondition condition, int chunkSize, Consumer<BulkResult> progress) {
+        return inChunks("delete", condition, chunkSize, progress,
+                (from, to) -> memberRepository.bulkDelete(condition, from, to));
+    }
+
+    private BulkResult inChunks(String operation, MemberSearchCondition condition, int chunkSize,
+                                Consumer<BulkResult> progress, ChunkOperation chunkOperation) {
+        // addAge, changeTeam, delete 모두 chunk 트랜잭션을 열기 전에 확인
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunk 크기는 1 이상이어야 합니다: " + chunkSize);
+        }
+        long[] range = readTx.execute(status -> memberRepository.findIdRange(condition));
+        if (range == null) {
+            return new BulkResult(0, 0, 0, 0);
+        }
+
+        long maxId = range[1];
+        long affected = 0;
+        int chunks = 0;
+        BulkResult result = new BulkResult(0, 0, range[0] - 1, maxId);
+
+        for (long start = range[0]; start <= maxId; start += chunkSize) {
+            long from = start;
+            long to = Math.min(start + chunkSize - 1, maxId);
+            Long count = chunkTx.execute(status -> chunkOperation.execute(from, to));
+            affected += count == null ? 0 : count;
+            chunks++;
+
+            result = new BulkResult(affected, chunks, to, maxId);
+            log.debug("member bulk {} progress: {}", operation, result);
+            if (progress != null) {
+                progress.accept(result);
+            }
+        }
+
+        log.info("member bulk {} finished: {}", operation, result);
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface ChunkOperation {
+        long execute(long fromId, long toId);
+    }
+}
@@ -0,0 +1,492 @@
+package com.example.querydsl.shard;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.dto.MemberTeamDto;
+import com.example.querydsl.dto.TeamStatisticsDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/*
+팀 단위 샤딩 - 팀과 그 팀의 회원은 같은 샤드에 저장 (팀 id 로 샤드 결정)
+- 새 팀은 샤드를 차례로 돌아가며 저장, 팀 id 에 그 샤드 번호가 들어있음 (아래 id 규칙)
+- 팀이 없는 회원은 username 해시로 샤드 결정
+- 쓰기 : 팀 id, 회원 id(지금 있는 샤드)로 정한 샤드에서 실행
+- 검색 : 팀 이름은 유일하지 않아서 샤드를 정할 수 없으므로 모든 샤드에 동시에 실행(scatter)한 뒤 합침(gather)
+  정렬 + 페이징은 샤드마다 offset + size 개를 정렬해서 가져온 뒤 합쳐서 다시 정렬하고 자름 (뒤 페이지일수록 비쌈)
+  개수, 집계는 샤드별 결과를 더함
+- id 는 샤드별 시퀀스 값 * MAX_SHARDS + 샤드 번호 -> 전체에서 유일하고 id 만으로 처음 저장한 샤드를 알 수 있음
+  다른 샤드의 팀으로 옮긴 회원은 처음 샤드의 member_location 에 지금 샤드를 기록 (findById)
+- 테이블, 인덱스는 엔티티(Member, Team)와 같은 구성 (username 유일 조건은 샤드 안에서만 보장)
+
+MemberRepository(jpa)를 샤드별로 라우팅하지 않고 jdbc 로 따로 둔 이유
+- EntityManager 하나는 커넥션(샤드) 하나에 묶여서 scatter 검색, 샤드 간 이동을 한 영속성 컨텍스트에서 할 수 없음
+- 엔티티 이벤트(통계, 색인, 조회 모델)와 2차 캐시는 기본 db 의 테이블을 가정하므로 샤드에는 적용되지 않음
+검색 조건은 MemberRepository.searchByWhere 와 같고, 인덱스가 같으므로 샤드 안의 실행 계획도 같음
+문자열 정렬은 샤드 안(db collation)과 합칠 때(String.compareTo)가 같아야 샤드별 앞 offset + size 개가 전체 순서의 앞부분이 됨
+-> username, name 은 binary collation 으로 만듦 (MySQL utf8mb4_bin, h2 는 기본이 대소문자 구분 문자 코드 순서)
+   utf8mb4_bin 은 코드 포인트 순서라서 U+10000 이상 문자와 U+E000 ~ U+FFFF 문자 사이만 String.compareTo 와 다름
+ */
+public class ShardedMemberRepository implements Closeable {
+    public static final int MAX_SHARDS = 64;
+    // 샤드마다 시퀀스에서 한 번에 받아오는 id 수
+    private static final int ID_ALLOCATION_SIZE = 100;
+
+    // %s 는 문자열 컬럼의 binary collation (Shard.binaryCollation)
+    private static final String[] SCHEMA = {
+            "create table if not exists Team (id bigint not null primary key, name varchar(255)%s)",
+            "create table if not exists Member (member_id bigint not null primary key, username varchar(255)%s," +
+                    " age integer not null, team_id bigint)",
+            // 처음 샤드(id 의 샤드)에서 다른 샤드로 옮긴 회원의 지금 샤드
+            "create table if not exists member_location (member_id bigint not null primary key, shard integer not null)",
+            "create table if not exists shard_sequence (next_val bigint not null)"
+    };
+    // {테이블, 인덱스 이름, ddl} - 엔티티의 @Table 인덱스와 같음, 같은 이름의 인덱스가 없을 때만 만듦
+    private static final String[][] INDEXES = {
+            {"Team", "idx_team_name", "create index idx_team_name on Team (name)"},
+            {"Member", "uk_member_username", "create unique index uk_member_username on Member (username)"},
+            {"Member", "idx_member_username", "create index idx_member_username on Member (username, age, team_id)"},
+            {"Member", "idx_member_team_age", "create index idx_member_team_age on Member (team_id, age)"},
+            {"Member", "idx_member_age", "create index idx_member_age on Member (age)"}
+    };
+    private static final String SELECT_MEMBER_TEAM =
+            "select m.member_id, m.username, m.age, m.team_id, t.name from Member m";
+    private static final RowMapper<MemberTeamDto> MEMBER_TEAM_DTO = (rs, rowNum) -> new MemberTeamDto(
+            rs.getLong(1), rs.getString(2), rs.getInt(3), rs.getObject(4, Long.class), rs.getString(5));
+
+    private final List<Shard> shards = new ArrayList<>();
+    private final AtomicInteger nextTeamShard = new AtomicInteger();
+    private final ExecutorService scatterExecutor;
+
+    public ShardedMemberRepository(List<DataSource> dataSources) {
+        if (dataSources.isEmpty() || dataSources.size() > MAX_SHARDS) {
+            throw new IllegalArgumentException("shard count must be 1.." + MAX_SHARDS + ": " + dataSources.size());
+        }
+        for (int i = 0; i < dataSources.size(); i++) {
+            shards.add(new Shard(i, dataSources.get(i)));
+        }
+        scatterExecutor = Executors.newFixedThreadPool(dataSources.size(), r -> {
+            Thread thread = new Thread(r, "shard-scatter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // 샤드마다 테이블, 인덱스가 없으면 만듦
+    public void initSchema() {
+        for (Shard shard : shards) {
+            String collation = shard.binaryCollation();
+            for (String ddl : SCHEMA) {
+                shard.jdbc.execute(ddl.replace("%s", collation));
+            }
+            for (String[] index : INDEXES) {
+                if (!shard.hasIndex(index[0], index[1])) {
+                    shard.jdbc.execute(index[2]);
+                }
+            }
+            shard.tx.executeWithoutResult(status -> {
+                Long rows = shard.jdbc.queryForObject("select count(*) from shard_sequence", Long.class);
+                if (rows == null || rows == 0) {
+                    shard.jdbc.update("insert into shard_sequence (next_val) values (1)");
+                }
+            });
+        }
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    // 팀과 그 팀 회원의 샤드
+    public int shardOfTeam(long teamId) {
+        return shardOfId(teamId);
+    }
+
+    // 팀 id 의 샤드, 회원 id 는 처음 저장한 샤드
+    public int shardOfId(long id) {
+        return (int) (id % MAX_SHARDS);
+    }
+
+    // 반환값은 팀 id (이름이 같은 팀이 있어도 따로 저장)
+    public long saveTeam(String name) {
+        Shard shard = shards.get(Math.floorMod(nextTeamShard.getAndIncrement(), shards.size()));
+        long id = shard.nextId();
+        shard.jdbc.update("insert into Team (id, name) values (?, ?)", id, name);
+        return id;
+    }
+
+    // teamId 가 null 이면 팀 없는 회원
+    public long saveMember(String username, int age, Long teamId) {
+        Shard shard = teamId == null
+                ? shards.get(Math.floorMod(username.hashCode(), shards.size()))
+                : shardOf(teamId);
+        if (teamId != null) {
+            shard.requireTeam(teamId);
+        }
+        long id = shard.nextId();
+        shard.jdbc.update("insert into Member (member_id, username, age, team_id) values (?, ?, ?, ?)",
+                id, username, age, teamId);
+        return id;
+    }
+
+    public Optional<MemberTeamDto> findById(long memberId) {
+        return onCurrentShard(memberId, (shard, id) -> shard.findMember(id));
+    }
+
+    // 회원이 지금 있는 샤드에서 조회
+    // 처음 샤드에 없으면 member_location 의 샤드에서 찾고, 찾는 사이에 다시 옮겨졌으면(member_location 이 바뀜) 새 샤드에서 다시 찾음
+    private <T> Optional<T> onCurrentShard(long memberId, BiFunction<Shard, Long, Optional<T>> lookup) {
+        Shard home = shardOf(memberId);
+        Optional<T> found = lookup.apply(home, memberId);
+        if (found.isPresent()) {
+            return found;
+        }
+        Integer location = home.location(memberId);
+        while (location != null) {
+            found = lookup.apply(shards.get(location), memberId);
+            if (found.isPresent()) {
+                return found;
+            }
+            Integer current = home.location(memberId);
+            if (Objects.equals(current, location)) {
+                break;
+            }
+            location = current;
+        }
+        return Optional.empty();
+    }
+
+    private Shard shardOf(long id) {
+        int index = shardOfId(id);
+        if (index >= shards.size()) {
+            throw new IllegalArgumentException("no shard " + index + " for id " + id);
+        }
+        return shards.get(index);
+    }
+
+    /*
+    회원을 다른 팀으로 옮김 (toTeamId 가 null 이면 팀에서 뺌, 회원은 지금 샤드에 그대로)
+    회원의 지금 샤드는 회원 id 와 member_location 으로 찾음 (호출하는 쪽이 아는 팀을 믿지 않음)
+    없는 회원, 없는 팀이면 IllegalArgumentException
+    같은 샤드면 team_id 만 바꾸고, 다른 샤드면 새 샤드에 (같은 id 로) 추가한 뒤 원래 샤드에서 삭제
+    샤드 간 이동은 분산 트랜잭션이 아니므로 중간에 실패하면 두 샤드에 모두 남을 수 있음 -> 다시 실행하면 정리됨
+    새 샤드에 추가 -> 처음 샤드의 member_location 갱신 -> 원래 샤드에서 삭제 순서라서 도중에도 findById 로 찾을 수 있음
+     */
+    public void changeTeam(long memberId, Long toTeamId) {
+        // {샤드, username, age}
+        Object[] current = onCurrentShard(memberId, (shard, id) -> shard.jdbc.query(
+                        "select username, age from Member where member_id = ?",
+                        (rs, rowNum) -> new Object[]{shard, rs.getString(1), rs.getInt(2)}, id).stream().findFirst())
+                .orElseThrow(() -> new IllegalArgumentException("no member: " + memberId));
+        Shard from = (Shard) current[0];
+        Shard to = toTeamId == null ? from : shardOf(toTeamId);
+        if (toTeamId != null) {
+            to.requireTeam(toTeamId);
+        }
+
+        if (from == to) {
+            from.jdbc.update("update Member set team_id = ? where member_id = ?", toTeamId, memberId);
+            return;
+        }
+        to.tx.executeWithoutResult(status -> {
+            to.jdbc.update("delete from Member where member_id = ?", memberId);
+            to.jdbc.update("insert into Member (member_id, username, age, team_id) values (?, ?, ?, ?)",
+                    memberId, current[1], current[2], toTeamId);
+        });
+        Shard home = shardOf(memberId);
+        home.tx.executeWithoutResult(status -> {
+            home.jdbc.update("delete from member_location where member_id = ?", memberId);
+            if (to != home) {
+                home.jdbc.update("insert into member_location (member_id, shard) values (?, ?)", memberId, to.index);
+            }
+        });
+        from.jdbc.update("delete from Member where member_id = ?", memberId);
+    }
+
+    // 순서 없는 검색, 모든 샤드 결과를 이어붙임
+    public List<MemberTeamDto> searchByWhere(MemberSearchCondition condition) {
+        List<Object> params = new ArrayList<>();
+        String sql = searchSql(condition, params);
+        List<MemberTeamDto> result = new ArrayList<>();
+        for (List<MemberTeamDto> part : scatter(shard -> shard.jdbc.query(sql, MEMBER_TEAM_DTO, params.toArray()))) {
+            result.addAll(part);
+        }
+        return result;
+    }
+
+    public Page<MemberTeamDto> searchPageByWhere(MemberSearchCondition condition, Pageable pageable) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(searchSql(condition, params));
+        sql.append(" order by ").append(orderBy(pageable.getSort())).append(" limit ?");
+        // 합친 뒤에 offset 을 적용해야 하므로 샤드마다 앞에서부터 offset + size 개
+        params.add(pageable.getOffset() + pageable.getPageSize());
+
+        List<MemberTeamDto> merged = new ArrayList<>();
+        for (List<MemberTeamDto> part : scatter(
+                shard -> shard.jdbc.query(sql.toString(), MEMBER_TEAM_DTO, params.toArray()))) {
+            merged.addAll(part);
+        }
+        merged.sort(comparator(pageable.getSort()));
+
+        int from = (int) Math.min(pageable.getOffset(), merged.size());
+        int to = Math.min(from + pageable.getPageSize(), merged.size());
+        return PageableExecutionUtils.getPage(new ArrayList<>(merged.subList(from, to)), pageable,
+                () -> countByWhere(condition));
+    }
+
+    public long countByWhere(MemberSearchCondition condition) {
+        List<Object> params = new ArrayList<>();
+        String sql = searchSql(condition, params).replace(SELECT_MEMBER_TEAM, "select count(*) from Member m");
+        long total = 0;
+        for (Long count : scatter(shard -> shard.jdbc.queryForObject(sql, Long.class, params.toArray()))) {
+            total += count == null ? 0 : count;
+        }
+        return total;
+    }
+
+    // 팀별 나이 통계, 팀은 한 샤드에만 있지만 팀 없는 회원(teamId null)은 여러 샤드에 있으므로 합침
+    public List<TeamStatisticsDto> statisticsByTeam(MemberSearchCondition condition) {
+        List<Object> params = new ArrayList<>();
+        String sql = searchSql(condition, params).replace(SELECT_MEMBER_TEAM,
+                "select m.team_id, t.name, count(*), sum(m.age), min(m.age), max(m.age) from Member m")
+                + " group by m.team_id, t.name";
+
+        Map<Long, TeamStatisticsDto> merged = new LinkedHashMap<>();
+        for (List<TeamStatisticsDto> part : scatter(shard -> shard.jdbc.query(sql,
+                (rs, rowNum) -> new TeamStatisticsDto(rs.getObject(1, Long.class), rs.getString(2),
+                        rs.getLong(3), rs.getLong(4), rs.getInt(5), rs.getInt(6)),
+                params.toArray()))) {
+            for (TeamStatisticsDto stats : part) {
+                merged.merge(stats.getTeamId(), stats, ShardedMemberRepository::sum);
+            }
+        }
+        List<TeamStatisticsDto> result = new ArrayList<>(merged.values());
+        result.sort(Comparator.comparing(TeamStatisticsDto::getTeamName, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return result;
+    }
+
+    private static TeamStatisticsDto sum(TeamStatisticsDto a, TeamStatisticsDto b) {
+        return new TeamStatisticsDto(a.getTeamId(), a.getTeamName(),
+                a.getMemberCount() + b.getMemberCount(),
+                a.getAgeSum() + b.getAgeSum(),
+                Math.min(a.getMinAge(), b.getMinAge()),
+                Math.max(a.getMaxAge(), b.getMaxAge()));
+    }
+
+    // 모든 샤드에서 동시에 실행
+    private <T> List<T> scatter(Function<Shard, T> query) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards.size());
+        for (Shard shard : shards) {
+            futures.add(CompletableFuture.supplyAsync(() -> query.apply(shard), scatterExecutor));
+        }
+        List<T> results = new ArrayList<>(shards.size());
+        for (CompletableFuture<T> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException e) {
+                // 샤드에서 난 예외(DataAccessException 등)를 그대로 던짐
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        return results;
+    }
+
+    // MemberRepository.searchByWhere 와 같은 조건
+    private String searchSql(MemberSearchCondition condition, List<Object> params) {
+        StringBuilder sql = new StringBuilder(SELECT_MEMBER_TEAM)
+                .append(" left join Team t on t.id = m.team_id where 1 = 1");
+        if (StringUtils.hasText(condition.getUsername())) {
+            sql.append(" and m.username = ?");
+            params.add(condition.getUsername());
+        }
+        if (StringUtils.hasText(condition.getTeamName())) {
+            sql.append(" and t.name = ?");
+            params.add(condition.getTeamName());
+        }
+        if (condition.getAgeGoe() != null) {
+            sql.append(" and m.age >= ?");
+            params.add(condition.getAgeGoe());
+        }
+        if (condition.getAgeLoe() != null) {
+            sql.append(" and m.age <= ?");
+            params.add(condition.getAgeLoe());
+        }
+        return sql.toString();
+    }
+
+    // 정렬 조건 -> order by, 합칠 때 같은 순서가 되도록 comparator 와 같은 규칙 (마지막에 member_id)
+    private String orderBy(Sort sort) {
+        List<String> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            orders.add(column(order.getProperty()) + (order.isAscending() ? " asc" : " desc"));
+        }
+        orders.add("m.member_id asc");
+        return String.join(", ", orders);
+    }
+
+    private String column(String property) {
+        switch (property) {
+            case "memberId":
+                return "m.member_id";
+            case "username":
+                return "m.username";
+            case "age":
+                return "m.age";
+            case "teamName":
+                return "t.name";
+            default:
+                throw new IllegalArgumentException("unsupported sort property: " + property);
+        }
+    }
+
+    // null 은 오름차순에서 가장 앞 (MySQL, h2 와 같음)
+    private Comparator<MemberTeamDto> comparator(Sort sort) {
+        Comparator<MemberTeamDto> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<MemberTeamDto> next = Comparator.comparing(key(order.getProperty()),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            comparator = comparator.thenComparing(order.isAscending() ? next : next.reversed());
+        }
+        return comparator.thenComparing(MemberTeamDto::getMemberId);
+    }
+
+    private Function<MemberTeamDto, Comparable<Object>> key(String property) {
+        // 지원하지 않는 정렬 조건이면 예외
+        column(property);
+        return dto -> {
+            Object value;
+            switch (property) {
+                case "memberId":
+                    value = dto.getMemberId();
+                    break;
+                case "username":
+                    value = dto.getUsername();
+                    break;
+                case "age":
+                    value = dto.getAge();
+                    break;
+                default:
+                    value = dto.getTeamName();
+                    break;
+            }
+            @SuppressWarnings("unchecked")
+            Comparable<Object> comparable = (Comparable<Object>) value;
+            return comparable;
+        };
+    }
+
+    // scatter 스레드와 샤드 풀(Closeable 이면)을 닫음
+    @Override
+    public void close() throws IOException {
+        scatterExecutor.shutdownNow();
+        for (Shard shard : shards) {
+            if (shard.dataSource instanceof Closeable) {
+                ((Closeable) shard.dataSource).close();
+            }
+        }
+    }
+
+    // 샤드 하나의 jdbc 접근과 id 할당
+    private static class Shard {
+        private final int index;
+        private final DataSource dataSource;
+        private final JdbcTemplate jdbc;
+        private final TransactionTemplate tx;
+        private long nextLocalId;
+        private long maxLocalId;
+
+        Shard(int index, DataSource dataSource) {
+            this.index = index;
+            this.dataSource = dataSource;
+            this.jdbc = new JdbcTemplate(dataSource);
+            this.tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        }
+
+        // 샤드의 시퀀스 테이블에서 ID_ALLOCATION_SIZE 개씩 받아서 메모리에서 할당 (hibernate pooled 와 같은 방식)
+        synchronized long nextId() {
+            if (nextLocalId >= maxLocalId) {
+                Long start = tx.execute(status -> {
+                    jdbc.update("update shard_sequence set next_val = next_val + ?", ID_ALLOCATION_SIZE);
+                    return jdbc.queryForObject("select next_val from shard_sequence", Long.class);
+                });
+                maxLocalId = Objects.requireNonNull(start);
+                nextLocalId = maxLocalId - ID_ALLOCATION_SIZE;
+            }
+            return nextLocalId++ * MAX_SHARDS + index;
+        }
+
+        // MySQL 기본 collation 은 대소문자, 악센트를 무시하므로 컬럼에 binary collation 지정
+        // h2 는 기본 비교가 String.compareTo 와 같음
+        String binaryCollation() {
+            String product = jdbc.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+            return "MySQL".equals(product) ? " character set utf8mb4 collate utf8mb4_bin" : "";
+        }
+
+        Optional<MemberTeamDto> findMember(long memberId) {
+            return jdbc.query(SELECT_MEMBER_TEAM + " left join Team t on t.id = m.team_id where m.member_id = ?",
+                    MEMBER_TEAM_DTO, memberId).stream().findFirst();
+        }
+
+        // 이 샤드에서 처음 저장한 회원이 지금 있는 다른 샤드, 옮기지 않았으면 null
+        Integer location(long memberId) {
+            return jdbc.query("select shard from member_location where member_id = ?",
+                    (rs, rowNum) -> rs.getInt(1), memberId).stream().findFirst().orElse(null);
+        }
+
+        // 인덱스 이름은 db 마다 대소문자 저장 방식이 달라서 무시하고 비교
+        boolean hasIndex(String table, String indexName) {
+            Boolean found = jdbc.execute((ConnectionCallback<Boolean>) con -> {
+                DatabaseMetaData meta = con.getMetaData();
+                String name = meta.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT)
+                        : meta.storesLowerCaseIdentifiers() ? table.toLowerCase(Locale.ROOT) : table;
+                try (ResultSet rs = meta.getIndexInfo(con.getCatalog(), con.getSchema(), name, false, false)) {
+                    while (rs.next()) {
+                        if (indexName.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                            return true;
+                        }
+                    }
+                }
+                return false;
+            });
+            return Boolean.TRUE.equals(found);
+        }
+
+        void requireTeam(long teamId) {
+            Long count = jdbc.queryForObject("select count(*) from Team where id = ?", Long.class, teamId);
+            if (count == null || count == 0) {
+                throw new IllegalArgumentException("no team on shard " + index + ": " + teamId);
+            }
+        }
+    }
+}
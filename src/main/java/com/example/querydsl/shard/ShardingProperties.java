@@ -0,0 +1,25 @@
+package com.example.querydsl.shard;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "querydsl.sharding")
+public class ShardingProperties {
+    private boolean enabled = false;
+    // 순서가 곧 샤드 번호, 샤드를 추가하면 팀 이름 해시로 정해지는 샤드가 바뀌므로 데이터를 다시 나눠야 함
+    private List<Shard> shards = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
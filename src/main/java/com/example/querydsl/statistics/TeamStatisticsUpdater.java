@@ -0,0 +1,187 @@
+package com.example.querydsl.statistics;
+
+import com.example.querydsl.event.EntityChangesEvent;
+import com.example.querydsl.event.MemberBulkChangedEvent;
+import com.example.querydsl.event.MemberChangedEvent;
+import com.example.querydsl.event.TeamChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/*
+team_statistics(팀별 회원 수, 나이 합, 최소, 최대) 증분 갱신
+- 회원 저장, 팀 변경(changeTeam), 나이 변경, 삭제 : EntityChangesEvent (flush 후, 같은 트랜잭션)
+  변경 목록을 팀별 증감(회원 수, 나이 합, 추가/삭제된 나이의 최소, 최대)으로 합쳐서 팀마다 update 한 번
+  팀 행을 update 하므로 같은 팀을 바꾸는 트랜잭션끼리는 행 잠금으로 순서가 정해짐
+- 뺀 나이가 최소/최대값이었으면 그 팀의 min, max 만 다시 계산 (idx_member_team_age 양 끝만 읽음)
+- 벌크 연산 : 바뀐 회원이 속했던/속하게 된 팀마다 다시 계산
+- 팀 행이 없으면(새 팀, 통계 도입 전 팀) 그 팀을 다시 계산해서 만듦, 전체는 rebuild
+
+다시 계산은 이미 flush 된 이번 목록의 변경까지 포함하므로 다시 계산한 팀에는 이번 목록의 증감을 더하지 않음
+(이전 목록은 이미 반영되었고 다음 목록의 변경은 아직 db 에 없으므로 목록 단위로 구분하면 충분)
+ */
+@Component
+public class TeamStatisticsUpdater {
+    // 추가된 나이가 있을 때 - min, max 는 추가된 나이의 최소, 최대와 비교
+    private static final String ADD = "update team_statistics" +
+            " set member_count = member_count + ?, age_sum = age_sum + ?," +
+            " min_age = coalesce(least(min_age, ?), ?), max_age = coalesce(greatest(max_age, ?), ?)" +
+            " where team_id = ?";
+    // 빠지기만 했을 때
+    private static final String REMOVE = "update team_statistics" +
+            " set member_count = member_count + ?, age_sum = age_sum + ?" +
+            " where team_id = ?";
+    // 뺀 나이 중 최소가 현재 min 이하이거나 최대가 현재 max 이상이면 다시 계산
+    private static final String REFRESH_MIN_MAX = "update team_statistics" +
+            " set min_age = (select min(m.age) from Member m where m.team_id = ?)," +
+            " max_age = (select max(m.age) from Member m where m.team_id = ?)" +
+            " where team_id = ? and (min_age >= ? or max_age <= ?)";
+    private static final String DELETE = "delete from team_statistics where team_id = ?";
+    // 행이 없으면 만들고 있으면 덮어씀, 문장 하나
+    // delete 후 insert 는 없는 행에 대해 두 트랜잭션이 각자 gap 락을 잡고 서로의 insert 를 기다리다 교착됨 (REPEATABLE READ)
+    private static final String RECOMPUTE = "insert into team_statistics (team_id, member_count, age_sum, min_age, max_age)" +
+            " select ?, count(*), coalesce(sum(m.age), 0), min(m.age), max(m.age) from Member m where m.team_id = ?" +
+            " on duplicate key update member_count = values(member_count), age_sum = values(age_sum)," +
+            " min_age = values(min_age), max_age = values(max_age)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TeamStatisticsUpdater(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener
+    public void on(EntityChangesEvent event) {
+        // 이번 목록에서 추가된 팀은 다시 계산만, 삭제된 팀은 행 삭제만
+        Set<Long> recomputed = new LinkedHashSet<>();
+        Set<Long> deleted = new LinkedHashSet<>();
+        for (TeamChangedEvent change : event.getTeamChanges()) {
+            if (change.getType() == TeamChangedEvent.Type.INSERTED) {
+                recomputed.add(change.getTeamId());
+            } else if (change.getType() == TeamChangedEvent.Type.DELETED) {
+                recomputed.remove(change.getTeamId());
+                deleted.add(change.getTeamId());
+            }
+        }
+
+        Map<Long, Delta> deltas = new LinkedHashMap<>();
+        for (MemberChangedEvent change : event.getMemberChanges()) {
+            switch (change.getType()) {
+                case INSERTED:
+                    add(deltas, change.getNewTeamId(), change.getNewAge());
+                    break;
+                case UPDATED:
+                    if (!Objects.equals(change.getOldTeamId(), change.getNewTeamId())
+                            || !Objects.equals(change.getOldAge(), change.getNewAge())) {
+                        remove(deltas, change.getOldTeamId(), change.getOldAge());
+                        add(deltas, change.getNewTeamId(), change.getNewAge());
+                    }
+                    break;
+                case DELETED:
+                    remove(deltas, change.getOldTeamId(), change.getOldAge());
+                    break;
+            }
+        }
+
+        for (Long teamId : deleted) {
+            jdbcTemplate.update(DELETE, teamId);
+        }
+        for (Long teamId : recomputed) {
+            recompute(teamId);
+        }
+        deltas.forEach((teamId, delta) -> {
+            if (!recomputed.contains(teamId) && !deleted.contains(teamId)) {
+                apply(teamId, delta);
+            }
+        });
+    }
+
+    @EventListener
+    public void on(MemberBulkChangedEvent event) {
+        if (event.getAffectedRows() == 0) {
+            return;
+        }
+        for (Long teamId : event.getAffectedTeamIds()) {
+            if (teamId != null) {
+                recompute(teamId);
+            }
+        }
+    }
+
+    // 전체 다시 계산 (통계 도입 전 데이터, 어긋난 통계 복구)
+    @Transactional
+    public void rebuild() {
+        jdbcTemplate.update("delete from team_statistics");
+        jdbcTemplate.update("insert into team_statistics (team_id, member_count, age_sum, min_age, max_age)" +
+                " select t.id, count(m.member_id), coalesce(sum(m.age), 0), min(m.age), max(m.age)" +
+                " from Team t left join Member m on m.team_id = t.id" +
+                " group by t.id");
+    }
+
+    private void add(Map<Long, Delta> deltas, Long teamId, Integer age) {
+        if (teamId != null) {
+            deltas.computeIfAbsent(teamId, id -> new Delta()).add(age);
+        }
+    }
+
+    private void remove(Map<Long, Delta> deltas, Long teamId, Integer age) {
+        if (teamId != null) {
+            deltas.computeIfAbsent(teamId, id -> new Delta()).remove(age);
+        }
+    }
+
+    private void apply(Long teamId, Delta delta) {
+        int updated = delta.added > 0
+                ? jdbcTemplate.update(ADD, delta.count, delta.ageSum,
+                delta.addedMin, delta.addedMin, delta.addedMax, delta.addedMax, teamId)
+                : jdbcTemplate.update(REMOVE, delta.count, delta.ageSum, teamId);
+        if (updated == 0) {
+            // 행이 없던 팀 - 다시 계산한 값에 이번 변경이 이미 들어있음
+            recompute(teamId);
+            return;
+        }
+        if (delta.removed > 0) {
+            jdbcTemplate.update(REFRESH_MIN_MAX, teamId, teamId, teamId, delta.removedMin, delta.removedMax);
+        }
+    }
+
+    // 팀 한 개의 통계를 회원 테이블에서 다시 계산 (team_id 인덱스 범위만 읽음)
+    private void recompute(Long teamId) {
+        jdbcTemplate.update(RECOMPUTE, teamId, teamId);
+    }
+
+    // 목록 하나에서 팀 하나의 증감
+    private static class Delta {
+        private long count;
+        private long ageSum;
+        private int added;
+        private int removed;
+        private Integer addedMin;
+        private Integer addedMax;
+        private Integer removedMin;
+        private Integer removedMax;
+
+        void add(int age) {
+            count++;
+            ageSum += age;
+            added++;
+            addedMin = addedMin == null ? age : Math.min(addedMin, age);
+            addedMax = addedMax == null ? age : Math.max(addedMax, age);
+        }
+
+        void remove(int age) {
+            count--;
+            ageSum -= age;
+            removed++;
+            removedMin = removedMin == null ? age : Math.min(removedMin, age);
+            removedMax = removedMax == null ? age : Math.max(removedMax, age);
+        }
+    }
+}
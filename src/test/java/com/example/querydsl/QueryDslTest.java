@@ -1,31 +1,60 @@
 package com.example.querydsl;
 
+import com.example.querydsl.columnar.MemberColumns;
+import com.example.querydsl.columnar.MemberColumnsLoader;
 import com.example.querydsl.dto.*;
 import com.example.querydsl.entity.Member;
 import com.example.querydsl.entity.Team;
+import com.example.querydsl.export.ExportFormat;
+import com.example.querydsl.export.MemberExporter;
+import com.example.querydsl.metrics.QueryTrace;
+import com.example.querydsl.readmodel.MemberTeamViewProjector;
 import com.example.querydsl.repository.MemberRepository;
+import com.example.querydsl.repository.MemberSearchTemplates;
+import com.example.querydsl.repository.TeamRepository;
+import com.example.querydsl.search.MemberUsernameIndex;
+import com.example.querydsl.statistics.TeamStatisticsUpdater;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.Tuple;
 import com.querydsl.core.types.Projections;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.engine.spi.SessionImplementor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.annotation.Transactional;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.PersistenceUnit;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import static com.example.querydsl.entity.QMember.member;
 import static com.example.querydsl.entity.QTeam.team;
 
 // https://binco.tistory.com/entry/QueryDSL-조인-사용방법
 
-@SpringBootTest
+// 테스트에서는 N+1 이 의심되면 바로 실패하도록 설정
+// 조회 모델 outbox 는 기록하되 relay 는 테스트에서 직접 실행
+@SpringBootTest(properties = {
+		"querydsl.metrics.repeated-statement-mode=fail",
+		"querydsl.read-model.enabled=true",
+		"querydsl.read-model.relay-interval=1h"
+})
 @Transactional
 public class QueryDslTest {
 
@@ -485,13 +514,13 @@ public class QueryDslTest {
 
 	@Test
 	public void repositoryTest() {
-		Member member = new Member("member3", 60);
+		Member member = new Member("member5", 60);
 		memberRepository.save(member);
 
 //		List<Member> result = memberRepository.findAll_queryDsl();
 //		assertThat(result).containsExactly(member);
 
-		List<Member> result2 = memberRepository.findByname_queryDsl("member3");
+		List<Member> result2 = memberRepository.findByname_queryDsl("member5");
 		for (Member m : result2) {
 			System.out.println("!!!!!!!!!!!!!!!!!!!!!! m = " + m);
 		}
@@ -516,4 +545,445 @@ public class QueryDslTest {
 
 		assertThat(result).extracting("username").contains("member4");
 	}
-}
\ No newline at end of file
+
+	// 페이징 - 컨텐츠 쿼리와 카운트 쿼리 분리
+	@Test
+	public void searchPageTest() {
+		MemberSearchCondition condition = new MemberSearchCondition();
+		PageRequest pageRequest = PageRequest.of(0, 3, Sort.by("username"));
+
+		Page<MemberTeamDto> result = memberRepository.searchPageByWhere(condition, pageRequest);
+
+		assertThat(result.getSize()).isEqualTo(3);
+		assertThat(result.getTotalElements()).isEqualTo(4);
+		assertThat(result.getContent()).extracting("username").containsExactly("member1", "member2", "member3");
+	}
+
+	@Test
+	public void searchPageByBuilderTest() {
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setTeamName("teamB");
+
+		Page<MemberTeamDto> result = memberRepository.searchPageByBuilder(condition, PageRequest.of(0, 10));
+
+		// 첫 페이지에 전체 결과가 다 들어오므로 카운트 쿼리 없이 전체 개수 계산
+		assertThat(result.getTotalElements()).isEqualTo(2);
+		assertThat(result.getContent()).extracting("teamName").containsOnly("teamB");
+	}
+
+	// 커서 페이징 - 다음 커서로 이어서 조회
+	@Test
+	public void searchByCursorTest() {
+		MemberSearchCondition condition = new MemberSearchCondition();
+
+		CursorSlice<MemberTeamDto> first =
+				memberRepository.searchByCursor(condition, MemberCursorSort.AGE_DESC, null, 3);
+		assertThat(first.getContent()).extracting("age").containsExactly(40, 30, 20);
+		assertThat(first.hasNext()).isTrue();
+
+		CursorSlice<MemberTeamDto> second =
+				memberRepository.searchByCursor(condition, MemberCursorSort.AGE_DESC, first.getNextCursor(), 3);
+		assertThat(second.getContent()).extracting("age").containsExactly(10);
+		assertThat(second.hasNext()).isFalse();
+	}
+
+	@Test
+	public void searchByCursorRejectsNonPositiveSize() {
+		MemberSearchCondition condition = new MemberSearchCondition();
+
+		assertThatThrownBy(() -> memberRepository.searchByCursor(condition, MemberCursorSort.AGE_DESC, null, 0))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> memberRepository.searchByCursor(condition, MemberCursorSort.AGE_DESC, null, -1))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	// 스트림 조회 - 분리 주기마다 앞에서 넘겨준 엔티티는 준영속 상태
+	@Test
+	public void streamTest() {
+		em.flush();
+		em.clear();
+
+		List<Member> result;
+		try (Stream<Member> stream = memberRepository.streamAll_queryDsl(2, 2)) {
+			result = stream.collect(Collectors.toList());
+		}
+
+		assertThat(result).hasSize(4);
+		assertThat(em.contains(result.get(0))).isFalse();
+		assertThat(em.contains(result.get(result.size() - 1))).isTrue();
+	}
+
+	// 기본 fetchSize - MySQL 은 스트리밍 결과셋(Integer.MIN_VALUE), 결과를 읽는 동안 팀은 fetch join 으로 함께 읽음
+	@Test
+	public void streamDefaultFetchSizeTest() {
+		em.flush();
+		em.clear();
+
+		List<String> teamNames;
+		try (Stream<Member> stream = memberRepository.streamAll_queryDsl()) {
+			teamNames = stream.map(m -> m.getTeam().getName()).collect(Collectors.toList());
+		}
+
+		assertThat(teamNames).containsExactlyInAnyOrder("teamA", "teamA", "teamB", "teamB");
+		assertThat(memberRepository.findAll_readOnly()).hasSize(4);
+	}
+
+	// 읽기 전용 조회 - 쓰기 트랜잭션 안에서 호출되어도 스냅샷을 만들지 않고, 수정해도 update 가 나가지 않음
+	@Test
+	public void readOnlyEntitiesAreNotFlushed() {
+		em.flush();
+		em.clear();
+
+		List<Member> all = memberRepository.findAll_readOnly();
+		Member byName = memberRepository.findByname_readOnly("member2").get(0);
+
+		SessionImplementor session = em.unwrap(SessionImplementor.class);
+		for (Member m : all) {
+			assertThat(session.isReadOnly(m)).isTrue();
+			// 변경 감지용 스냅샷(로딩 시점 값)이 없음
+			assertThat(session.getPersistenceContext().getEntry(m).getLoadedState()).isNull();
+		}
+		assertThat(session.isReadOnly(byName)).isTrue();
+
+		for (Member m : all) {
+			m.setAge(99);
+		}
+		byName.setUsername("changed");
+		QueryTrace trace = QueryTrace.trace(() -> em.flush());
+		assertThat(trace.getStatementCount()).as("실행된 sql: %s", trace.getSql()).isZero();
+
+		em.clear();
+		assertThat(memberRepository.findByname_queryDsl("member2")).extracting(Member::getAge).containsExactly(20);
+		assertThat(memberRepository.findAll_queryDsl()).extracting(Member::getAge).containsOnly(10, 20, 30, 40);
+	}
+
+	// 대량 저장 - chunk 마다 flush, clear
+	@Test
+	public void saveAllTest() {
+		List<Member> members = new ArrayList<>();
+		for (int i = 0; i < 250; i++) {
+			members.add(new Member("bulk" + i, i % 50));
+		}
+
+		int saved = memberRepository.saveAll(members, 100);
+
+		assertThat(saved).isEqualTo(250);
+		assertThat(em.contains(members.get(0))).isFalse();
+		assertThat(memberRepository.findByname_queryDsl("bulk249")).hasSize(1);
+	}
+
+	// 쿼리 수 검증 - 지연 로딩이어도 default_batch_fetch_size 덕분에 팀은 in 쿼리 한 번으로 조회
+	@Test
+	public void lazyLoadingQueryCount() {
+		em.flush();
+		em.clear();
+
+		QueryTrace trace = QueryTrace.trace(() -> {
+			List<Member> members = queryFactory.selectFrom(member).fetch();
+			for (Member m : members) {
+				m.getTeam().getName();
+			}
+		});
+
+		assertThat(trace.getStatementCount()).as("실행된 sql: %s", trace.getSql()).isLessThanOrEqualTo(2);
+	}
+
+	// 같은 모양의 select 를 반복하면 N+1 로 보고 실패
+	@Test
+	public void repeatedStatementDetected() {
+		assertThatThrownBy(() -> {
+			for (int i = 0; i < 11; i++) {
+				memberRepository.findByname_queryDsl("member" + i);
+			}
+		}).hasStackTraceContaining("RepeatedStatementException");
+	}
+
+	// 리포지토리 벌크 연산 - 실행 후 영속성 컨텍스트를 비우므로 다시 조회하면 바뀐 값
+	@Test
+	public void repositoryBulkAddAge() {
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setTeamName("teamA");
+
+		long count = memberRepository.bulkAddAge(condition, 1, 0, Long.MAX_VALUE);
+
+		assertThat(count).isEqualTo(2);
+		assertThat(memberRepository.findByname_queryDsl("member1").get(0).getAge()).isEqualTo(11);
+		assertThat(memberRepository.findByname_queryDsl("member3").get(0).getAge()).isEqualTo(30);
+	}
+
+	@Autowired
+	TeamRepository teamRepository;
+
+	// 팀 id 페이징 후 in 쿼리로 팀, 회원 조회
+	@Test
+	public void teamRosterTest() {
+		Page<TeamRosterDto> result = teamRepository.findRosters(PageRequest.of(0, 1));
+
+		assertThat(result.getContent()).hasSize(1);
+		TeamRosterDto roster = result.getContent().get(0);
+		assertThat(roster.getTeamName()).isEqualTo("teamA");
+		assertThat(roster.getMembers()).extracting("username").containsExactly("member1", "member2");
+		assertThat(result.getTotalElements()).isEqualTo(2);
+	}
+
+	@Autowired
+	MemberUsernameIndex memberUsernameIndex;
+
+	// 이름 부분 검색 - 3-gram 색인은 flush 후 갱신되고, rebuild 로 다시 만들어도 같은 결과
+	@Test
+	public void searchByUsernameTest() {
+		em.flush();
+		assertThat(memberRepository.searchByUsername("BER3", UsernameSearchMode.CONTAINS, 10))
+				.extracting("username").containsExactly("member3");
+		memberUsernameIndex.rebuild();
+
+		List<MemberTeamDto> contains = memberRepository.searchByUsername("BER3", UsernameSearchMode.CONTAINS, 10);
+		assertThat(contains).extracting("username").containsExactly("member3");
+
+		List<MemberTeamDto> prefix = memberRepository.searchByUsername("member", UsernameSearchMode.STARTS_WITH, 2);
+		assertThat(prefix).extracting("username").containsExactly("member1", "member2");
+
+		// 3글자보다 짧으면 앞부분 검색
+		assertThat(memberRepository.searchByUsername("me", UsernameSearchMode.CONTAINS, 10)).hasSize(4);
+
+		// 대소문자는 두 방식이 같게 처리 (mysql 기본 collation 이라 무시)
+		assertThat(memberRepository.searchByUsername("MEMBER3", UsernameSearchMode.STARTS_WITH, 10))
+				.extracting("username").containsExactly("member3");
+		assertThat(memberRepository.searchByUsername("MEMBER3", UsernameSearchMode.CONTAINS, 10))
+				.extracting("username").containsExactly("member3");
+
+		assertThatThrownBy(() -> memberRepository.searchByUsername("member", UsernameSearchMode.STARTS_WITH, 0))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThat(memberRepository.searchByUsername("member", UsernameSearchMode.STARTS_WITH, Integer.MAX_VALUE)).hasSize(4);
+	}
+
+	@Autowired
+	TeamStatisticsUpdater teamStatisticsUpdater;
+
+	// 팀 통계 - 회원 변경은 flush 가 끝나면 발행되므로 롤백되는 테스트에서도 flush 로 반영됨
+	@Test
+	public void teamStatisticsTest() {
+		em.flush();
+		teamStatisticsUpdater.rebuild();
+
+		List<TeamStatisticsDto> before = teamRepository.findStatistics();
+		assertThat(before).extracting("teamName").containsExactly("teamA", "teamB");
+		assertThat(before.get(0).getMemberCount()).isEqualTo(2);
+		assertThat(before.get(0).getAvgAge()).isEqualTo(15.0);
+		assertThat(before.get(1).getMinAge()).isEqualTo(30);
+
+		// member1(10살)을 teamA -> teamB, teamA 의 최소값이 빠졌으므로 min 다시 계산
+		Member member1 = memberRepository.findByname_queryDsl("member1").get(0);
+		Team teamB = teamRepository.findByName("teamB").get(0);
+		member1.changeTeam(teamB);
+		em.flush();
+
+		List<TeamStatisticsDto> after = teamRepository.findStatistics();
+		assertThat(after.get(0).getMemberCount()).isEqualTo(1);
+		assertThat(after.get(0).getMinAge()).isEqualTo(20);
+		assertThat(after.get(0).getMaxAge()).isEqualTo(20);
+		assertThat(after.get(1).getMemberCount()).isEqualTo(3);
+		assertThat(after.get(1).getAgeSum()).isEqualTo(80);
+		assertThat(after.get(1).getMinAge()).isEqualTo(10);
+	}
+
+	@Autowired
+	MemberTeamViewProjector memberTeamViewProjector;
+
+	// 조회 모델 검색 - rebuild 로 복사한 뒤 팀 이름 변경을 outbox -> relay 로 반영
+	@Test
+	public void readModelSearchTest() {
+		em.flush();
+		// before 에서 저장한 회원의 outbox 를 먼저 비움
+		memberTeamViewProjector.relayAll();
+		memberTeamViewProjector.rebuild();
+
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setTeamName("teamB");
+		condition.setAgeGoe(35);
+		assertThat(memberRepository.searchByReadModel(condition)).extracting("username").containsExactly("member4");
+
+		Team teamB = teamRepository.findByName("teamB").get(0);
+		teamB.setName("teamC");
+		em.flush();
+		assertThat(memberTeamViewProjector.relay()).isEqualTo(1);
+
+		condition.setTeamName("teamC");
+		List<MemberTeamDto> result = memberRepository.searchByReadModel(condition);
+		assertThat(result).extracting("username").containsExactly("member4");
+		assertThat(result.get(0).getTeamId()).isEqualTo(teamB.getId());
+	}
+
+	@Autowired
+	MemberExporter memberExporter;
+
+	// 내보내기 - 결과셋을 읽으면서 바로 씀, 쉼표가 있는 값은 따옴표로 감쌈
+	@Test
+	public void exportTest() {
+		em.persist(new Member("member,5", 50, null));
+		em.flush();
+
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setAgeGoe(40);
+
+		ByteArrayOutputStream csv = new ByteArrayOutputStream();
+		long rows = memberExporter.export(condition, ExportFormat.CSV, csv);
+		assertThat(rows).isEqualTo(2);
+		assertThat(csv.toString(StandardCharsets.UTF_8).split("\n"))
+				.hasSize(3)
+				.contains("memberId,username,age,teamId,teamName")
+				.anyMatch(line -> line.contains(",member4,40,") && line.endsWith(",teamB"))
+				.anyMatch(line -> line.contains(",\"member,5\",50,,"));
+
+		ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+		memberExporter.export(condition, ExportFormat.NDJSON, ndjson);
+		assertThat(ndjson.toString(StandardCharsets.UTF_8).split("\n"))
+				.hasSize(2)
+				.anyMatch(line -> line.contains("\"username\":\"member4\"") && line.contains("\"teamName\":\"teamB\""))
+				.anyMatch(line -> line.contains("\"teamId\":null"));
+	}
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	// 대량 upsert - username 이 있으면 age, team 갱신, 없으면 추가
+	@Test
+	public void upsertAllTest() {
+		em.flush();
+		// before 에서 저장한 회원의 outbox 를 먼저 비움
+		memberTeamViewProjector.relayAll();
+		Long teamAId = teamRepository.findByName("teamA").get(0).getId();
+		Long teamBId = teamRepository.findByName("teamB").get(0).getId();
+
+		List<MemberUpsertDto> feed = new ArrayList<>();
+		feed.add(new MemberUpsertDto("member1", 11, teamBId));
+		feed.add(new MemberUpsertDto("member2", 20, teamAId));
+		for (int i = 0; i < 5; i++) {
+			feed.add(new MemberUpsertDto("feed" + i, 30 + i, i % 2 == 0 ? teamAId : null));
+		}
+
+		UpsertResult result = memberRepository.upsertAll(feed, 3);
+
+		assertThat(result.getInserted()).isEqualTo(5);
+		assertThat(result.getUpdated()).isEqualTo(2);
+		Member member1 = memberRepository.findByname_queryDsl("member1").get(0);
+		assertThat(member1.getAge()).isEqualTo(11);
+		assertThat(member1.getTeam().getId()).isEqualTo(teamBId);
+		assertThat(memberRepository.findByname_queryDsl("feed1").get(0).getTeam()).isNull();
+		assertThat(memberRepository.findByname_queryDsl("feed4").get(0).getAge()).isEqualTo(34);
+
+		// 색인은 새 회원만 추가 (기존 회원의 gram 은 그대로)
+		assertThat(memberRepository.searchByUsername("eed", UsernameSearchMode.CONTAINS, 10))
+				.extracting("username").containsExactlyInAnyOrder("feed0", "feed1", "feed2", "feed3", "feed4");
+		assertThat(memberRepository.searchByUsername("ber1", UsernameSearchMode.CONTAINS, 10)).hasSize(1);
+
+		// 팀 통계 - member1 이 teamA -> teamB, feed0, feed2, feed4 가 teamA
+		List<TeamStatisticsDto> statistics = teamRepository.findStatistics();
+		assertThat(statistics).extracting("teamName").containsExactly("teamA", "teamB");
+		assertThat(statistics.get(0).getMemberCount()).isEqualTo(4);
+		assertThat(statistics.get(0).getAgeSum()).isEqualTo(20 + 30 + 32 + 34);
+		assertThat(statistics.get(1).getMemberCount()).isEqualTo(3);
+		assertThat(statistics.get(1).getMinAge()).isEqualTo(11);
+
+		// outbox 에는 바뀐 회원 7명의 id 만 (기존 id ~ 새 id 범위 전체가 아님)
+		assertThat(jdbcTemplate.queryForObject(
+				"select sum(to_id - from_id + 1) from read_model_outbox where type = 'MEMBER'", Long.class))
+				.isEqualTo(7);
+		memberTeamViewProjector.relayAll();
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setTeamName("teamA");
+		assertThat(memberRepository.searchByReadModel(condition)).extracting("username")
+				.containsExactlyInAnyOrder("member2", "feed0", "feed2", "feed4");
+
+		assertThatThrownBy(() -> memberRepository.upsertAll(feed, 0))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Autowired
+	MemberSearchTemplates memberSearchTemplates;
+
+	@Test
+	public void searchByTemplateTest() {
+		// 조건 모양 16가지 모두 querydsl(where 패턴)과 같은 결과
+		for (int shape = 0; shape < 16; shape++) {
+			MemberSearchCondition condition = new MemberSearchCondition();
+			if ((shape & 1) != 0) {
+				condition.setUsername("member3");
+			}
+			if ((shape & 2) != 0) {
+				condition.setTeamName("teamB");
+			}
+			if ((shape & 4) != 0) {
+				condition.setAgeGoe(20);
+			}
+			if ((shape & 8) != 0) {
+				condition.setAgeLoe(35);
+			}
+
+			assertThat(memberRepository.searchByTemplate(condition))
+					.containsExactlyInAnyOrderElementsOf(memberRepository.searchByWhere(condition));
+			assertThat(memberRepository.countByTemplate(condition)).isEqualTo(memberRepository.countByWhere(condition));
+		}
+
+		// 두 번째부터는 만들어 둔 jpql 사용
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setTeamName("teamA");
+		long hits = memberSearchTemplates.hitCount();
+		long misses = memberSearchTemplates.missCount();
+
+		List<MemberTeamDto> result = memberRepository.searchByTemplate(condition);
+
+		assertThat(result).extracting("username").containsExactlyInAnyOrder("member1", "member2");
+		assertThat(memberSearchTemplates.hitCount()).isEqualTo(hits + 1);
+		assertThat(memberSearchTemplates.missCount()).isEqualTo(misses);
+	}
+
+	@Autowired
+	MemberColumnsLoader memberColumnsLoader;
+
+	// 열 단위 조회 - 기본형 배열 + 팀 이름 사전
+	@Test
+	public void columnsTest() {
+		em.persist(new Member("member5", 50, null));
+		em.flush();
+
+		MemberColumns columns = memberColumnsLoader.load(new MemberSearchCondition(), 2);
+
+		assertThat(columns.size()).isEqualTo(5);
+		assertThat(columns.teamCount()).isEqualTo(2);
+		assertThat(columns.ageSum()).isEqualTo(150);
+		assertThat(columns.avgAge()).isEqualTo(30.0);
+
+		Map<String, Integer> agesByName = new HashMap<>();
+		for (MemberColumns.Row row : columns) {
+			if (row.hasTeam()) {
+				agesByName.merge(row.teamName(), row.age(), Integer::sum);
+			} else {
+				assertThat(row.age()).isEqualTo(50);
+				assertThat(row.teamName()).isNull();
+			}
+		}
+		assertThat(agesByName).containsEntry("teamA", 30).containsEntry("teamB", 70);
+
+		List<TeamStatisticsDto> statistics = columns.statisticsByTeam();
+		assertThat(statistics).hasSize(3);
+		assertThat(statistics).filteredOn(stats -> "teamB".equals(stats.getTeamName()))
+				.singleElement()
+				.satisfies(stats -> {
+					assertThat(stats.getMemberCount()).isEqualTo(2);
+					assertThat(stats.getMinAge()).isEqualTo(30);
+					assertThat(stats.getMaxAge()).isEqualTo(40);
+				});
+		// 팀 없는 회원은 맨 뒤
+		assertThat(statistics.get(2).getTeamId()).isNull();
+		assertThat(statistics.get(2).getMemberCount()).isEqualTo(1);
+
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setTeamName("teamA");
+		condition.setAgeGoe(15);
+		MemberColumns teamA = memberColumnsLoader.load(condition);
+		assertThat(teamA.size()).isEqualTo(1);
+		assertThat(teamA.age(0)).isEqualTo(20);
+		assertThat(teamA.teamName(0)).isEqualTo("teamA");
+	}
+}
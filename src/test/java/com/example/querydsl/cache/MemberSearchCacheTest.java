@@ -0,0 +1,147 @@
+package com.example.querydsl.cache;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.dto.MemberTeamDto;
+import com.example.querydsl.repository.MemberRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// 리포지토리는 mock, 조회 횟수와 반환값으로 캐시 동작 확인
+class MemberSearchCacheTest {
+
+	private final MemberRepository memberRepository = mock(MemberRepository.class);
+	private final ExecutorService clients = Executors.newFixedThreadPool(8);
+	private MemberSearchCache cache;
+
+	private void setUp(Duration ttl, Duration staleWhileRevalidate) {
+		MemberSearchCacheProperties properties = new MemberSearchCacheProperties();
+		properties.setTtl(ttl);
+		properties.setStaleWhileRevalidate(staleWhileRevalidate);
+		cache = new MemberSearchCache(memberRepository, properties, new SimpleMeterRegistry());
+	}
+
+	@AfterEach
+	public void after() {
+		clients.shutdownNow();
+		cache.shutdown();
+	}
+
+	@Test
+	public void expiresAfterTtl() throws InterruptedException {
+		setUp(Duration.ofMillis(100), Duration.ZERO);
+		when(memberRepository.searchByWhere(any())).thenReturn(result("v1"), result("v2"));
+
+		assertThat(cache.searchByWhere(condition())).isEqualTo(result("v1"));
+		assertThat(cache.searchByWhere(condition())).isEqualTo(result("v1"));
+		verify(memberRepository, times(1)).searchByWhere(any());
+
+		Thread.sleep(150);
+
+		assertThat(cache.searchByWhere(condition())).isEqualTo(result("v2"));
+		verify(memberRepository, times(2)).searchByWhere(any());
+	}
+
+	@Test
+	public void returnsStaleValueWhileRefreshing() throws InterruptedException {
+		setUp(Duration.ofMillis(100), Duration.ofSeconds(30));
+		when(memberRepository.searchByWhere(any())).thenReturn(result("v1"), result("v2"));
+
+		cache.searchByWhere(condition());
+		Thread.sleep(150);
+
+		// ttl 이 지났지만 stale 구간 -> 이전 값을 바로 반환하고 백그라운드에서 다시 조회
+		assertThat(cache.searchByWhere(condition())).isEqualTo(result("v1"));
+		verify(memberRepository, timeout(1000).times(2)).searchByWhere(any());
+
+		// 갱신이 끝나면 새 값
+		List<MemberTeamDto> refreshed = result("v1");
+		for (int i = 0; i < 50 && refreshed.equals(result("v1")); i++) {
+			Thread.sleep(20);
+			refreshed = cache.searchByWhere(condition());
+		}
+		assertThat(refreshed).isEqualTo(result("v2"));
+		verify(memberRepository, times(2)).searchByWhere(any());
+	}
+
+	@Test
+	public void concurrentMissesLoadOnce() throws Exception {
+		setUp(Duration.ofMinutes(1), Duration.ZERO);
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(memberRepository.searchByWhere(any())).thenAnswer(invocation -> {
+			loading.countDown();
+			release.await();
+			return result("v1");
+		});
+
+		List<CompletableFuture<List<MemberTeamDto>>> results = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			results.add(CompletableFuture.supplyAsync(() -> cache.searchByWhere(condition()), clients));
+		}
+		assertThat(loading.await(1, TimeUnit.SECONDS)).isTrue();
+		// 나머지 요청이 진행 중인 조회를 기다리도록 잠시 둠
+		Thread.sleep(100);
+		release.countDown();
+
+		for (CompletableFuture<List<MemberTeamDto>> result : results) {
+			assertThat(result.get(1, TimeUnit.SECONDS)).isEqualTo(result("v1"));
+		}
+		verify(memberRepository, times(1)).searchByWhere(any());
+	}
+
+	@Test
+	public void invalidationDuringLoadDiscardsResult() throws Exception {
+		setUp(Duration.ofMinutes(1), Duration.ZERO);
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(memberRepository.searchByWhere(any()))
+				.thenAnswer(invocation -> {
+					loading.countDown();
+					release.await();
+					return result("before");
+				})
+				.thenReturn(result("after"));
+
+		CompletableFuture<List<MemberTeamDto>> inFlight =
+				CompletableFuture.supplyAsync(() -> cache.searchByWhere(condition()), clients);
+		assertThat(loading.await(1, TimeUnit.SECONDS)).isTrue();
+
+		// 조회 중에 변경이 커밋됨
+		cache.invalidateAll();
+		release.countDown();
+
+		// 진행 중이던 요청은 받은 값을 그대로 받지만 캐시에는 남지 않음
+		assertThat(inFlight.get(1, TimeUnit.SECONDS)).isEqualTo(result("before"));
+		assertThat(cache.size()).isZero();
+		assertThat(cache.searchByWhere(condition())).isEqualTo(result("after"));
+		verify(memberRepository, times(2)).searchByWhere(any());
+	}
+
+	private MemberSearchCondition condition() {
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setTeamName("teamA");
+		return condition;
+	}
+
+	private List<MemberTeamDto> result(String username) {
+		return List.of(new MemberTeamDto(1L, username, 10, 1L, "teamA"));
+	}
+}
@@ -0,0 +1,133 @@
+package com.example.querydsl.event;
+
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import com.example.querydsl.repository.MemberRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 실제 커밋, 롤백으로 변경 목록이 언제 몇 번 발행되는지 확인 (h2)
+@SpringBootTest
+@ActiveProfiles("h2")
+class EntityChangeEventBridgeTest {
+
+	@TestConfiguration
+	static class Config {
+		@Bean
+		Recorder recorder() {
+			return new Recorder();
+		}
+	}
+
+	static class Recorder {
+		final List<EntityChangesEvent> events = new ArrayList<>();
+
+		@EventListener
+		public void on(EntityChangesEvent event) {
+			events.add(event);
+		}
+	}
+
+	@Autowired
+	Recorder recorder;
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	MemberRepository memberRepository;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	public void before() {
+		recorder.events.clear();
+	}
+
+	@AfterEach
+	public void after() {
+		jdbcTemplate.update("delete from member_username_gram where member_id in (select member_id from Member where username like 'bridge%')");
+		jdbcTemplate.update("delete from team_statistics where team_id in (select id from Team where name like 'bridge%')");
+		jdbcTemplate.update("delete from Member where username like 'bridge%'");
+		jdbcTemplate.update("delete from Team where name like 'bridge%'");
+	}
+
+	// 커밋 시점 flush 의 변경은 한 번에 발행
+	@Test
+	public void commitPublishesOneBatch() {
+		transactionTemplate.executeWithoutResult(status -> {
+			Team team = new Team("bridgeTeam");
+			em.persist(team);
+			for (int i = 0; i < 3; i++) {
+				em.persist(new Member("bridge" + i, 10, team));
+			}
+		});
+
+		assertThat(recorder.events).hasSize(1);
+		EntityChangesEvent event = recorder.events.get(0);
+		assertThat(event.getTeamChanges()).extracting(TeamChangedEvent::getType)
+				.containsExactly(TeamChangedEvent.Type.INSERTED);
+		assertThat(event.getMemberChanges()).extracting(MemberChangedEvent::getNewUsername)
+				.containsExactly("bridge0", "bridge1", "bridge2");
+	}
+
+	// chunk 마다 flush, clear 하는 대량 저장은 flush 마다 그 chunk 만 발행 (커밋 때는 남은 것이 없음)
+	@Test
+	public void flushPublishesCollectedChanges() {
+		List<Member> members = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			members.add(new Member("bridge" + i, i));
+		}
+
+		transactionTemplate.executeWithoutResult(status -> memberRepository.saveAll(members, 10));
+
+		assertThat(recorder.events).extracting(e -> e.getMemberChanges().size()).containsExactly(10, 10, 5);
+	}
+
+	// 쿼리 전 자동 flush 로 반영된 변경은 커밋 직전에 발행
+	@Test
+	public void autoFlushedChangesArePublishedBeforeCommit() {
+		transactionTemplate.executeWithoutResult(status -> {
+			em.persist(new Member("bridge0", 10));
+			em.createQuery("select m from Member m where m.username = 'bridge0'", Member.class).getResultList();
+			assertThat(recorder.events).isEmpty();
+		});
+
+		assertThat(recorder.events).hasSize(1);
+		assertThat(recorder.events.get(0).getMemberChanges()).hasSize(1);
+	}
+
+	// 롤백되면 모아둔 변경은 발행하지 않고 버림
+	@Test
+	public void rollbackDropsPendingChanges() {
+		transactionTemplate.executeWithoutResult(status -> {
+			em.persist(new Member("bridge0", 10));
+			em.createQuery("select m from Member m where m.username = 'bridge0'", Member.class).getResultList();
+			status.setRollbackOnly();
+		});
+		transactionTemplate.executeWithoutResult(status -> em.persist(new Member("bridge1", 10)));
+
+		assertThat(recorder.events).hasSize(1);
+		assertThat(recorder.events.get(0).getMemberChanges()).extracting(MemberChangedEvent::getNewUsername)
+				.containsExactly("bridge1");
+	}
+}
@@ -0,0 +1,136 @@
+package com.example.querydsl.loader;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// 타이머는 직접 실행하도록 스케줄러를 mock 으로, 조회는 호출한 스레드에서 바로 실행
+class BatcherTest {
+
+	List<List<Long>> batches;
+	List<Runnable> timers;
+	List<ScheduledFuture<?>> timerFutures;
+	ScheduledExecutorService scheduler;
+
+	@BeforeEach
+	public void before() {
+		batches = new ArrayList<>();
+		timers = new ArrayList<>();
+		timerFutures = new ArrayList<>();
+		scheduler = mock(ScheduledExecutorService.class);
+		when(scheduler.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class))).thenAnswer(invocation -> {
+			timers.add(invocation.getArgument(0));
+			ScheduledFuture<?> future = mock(ScheduledFuture.class);
+			timerFutures.add(future);
+			return future;
+		});
+	}
+
+	@Test
+	public void collectsKeysUntilWindowEnds() {
+		Batcher<Long, String> batcher = batcher(10);
+
+		CompletableFuture<String> first = batcher.load(1L);
+		CompletableFuture<String> duplicate = batcher.load(1L);
+		CompletableFuture<String> second = batcher.load(2L);
+		CompletableFuture<String> unknown = batcher.load(99L);
+
+		assertThat(duplicate).isSameAs(first);
+		assertThat(timers).hasSize(1);
+		assertThat(batches).isEmpty();
+
+		timers.get(0).run();
+
+		assertThat(batches).containsExactly(List.of(1L, 2L, 99L));
+		assertThat(first).isCompletedWithValue("v1");
+		assertThat(second).isCompletedWithValue("v2");
+		assertThat(unknown).isCompletedWithValue("none");
+	}
+
+	@Test
+	public void fullBatchDispatchesImmediately() {
+		Batcher<Long, String> batcher = batcher(2);
+
+		batcher.load(1L);
+		CompletableFuture<String> second = batcher.load(2L);
+
+		assertThat(batches).containsExactly(List.of(1L, 2L));
+		assertThat(second).isCompletedWithValue("v2");
+		verify(timerFutures.get(0)).cancel(false);
+	}
+
+	// 가득 차서 먼저 나간 batch 의 타이머가 뒤늦게 실행되어도 다음 batch 는 자기 window 를 다 채움
+	@Test
+	public void staleTimerDoesNotDispatchNextBatchEarly() {
+		Batcher<Long, String> batcher = batcher(2);
+
+		batcher.load(1L);
+		batcher.load(2L);
+		CompletableFuture<String> third = batcher.load(3L);
+		assertThat(timers).hasSize(2);
+
+		timers.get(0).run();
+		assertThat(third).isNotDone();
+		assertThat(batches).containsExactly(List.of(1L, 2L));
+
+		timers.get(1).run();
+		assertThat(third).isCompletedWithValue("v3");
+		assertThat(batches).containsExactly(List.of(1L, 2L), List.of(3L));
+	}
+
+	@Test
+	public void explicitDispatchCancelsTimer() {
+		Batcher<Long, String> batcher = batcher(10);
+
+		CompletableFuture<String> first = batcher.load(1L);
+		batcher.dispatch();
+
+		assertThat(first).isCompletedWithValue("v1");
+		verify(timerFutures.get(0)).cancel(false);
+
+		timers.get(0).run();
+		assertThat(batches).hasSize(1);
+	}
+
+	@Test
+	public void loaderFailureCompletesAllExceptionally() {
+		Batcher<Long, String> batcher = new Batcher<>(keys -> {
+			throw new IllegalStateException("db down");
+		}, "none", TimeUnit.MILLISECONDS.toNanos(10), 10, scheduler, Runnable::run);
+
+		CompletableFuture<String> first = batcher.load(1L);
+		CompletableFuture<String> second = batcher.load(2L);
+		batcher.dispatch();
+
+		assertThat(first).isCompletedExceptionally();
+		assertThat(second).isCompletedExceptionally();
+	}
+
+	private Batcher<Long, String> batcher(int maxBatchSize) {
+		return new Batcher<>(keys -> {
+			batches.add(new ArrayList<>(keys));
+			Map<Long, String> result = new HashMap<>();
+			for (Long key : keys) {
+				if (key < 10) {
+					result.put(key, "v" + key);
+				}
+			}
+			return result;
+		}, "none", TimeUnit.MILLISECONDS.toNanos(10), maxBatchSize, scheduler, Runnable::run);
+	}
+}
@@ -0,0 +1,101 @@
+package com.example.querydsl.readmodel;
+
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import com.example.querydsl.repository.MemberRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 커밋된 변경이 변경 목록마다 outbox 몇 행으로 기록되는지, relay 후 조회 모델이 원본과 같은지 확인 (h2)
+@SpringBootTest(properties = {
+		"querydsl.read-model.enabled=true",
+		"querydsl.read-model.relay-interval=1h"
+})
+@ActiveProfiles("h2")
+class MemberTeamViewProjectorTest {
+
+	@Autowired
+	MemberTeamViewProjector projector;
+
+	@Autowired
+	MemberRepository memberRepository;
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	public void before() {
+		jdbcTemplate.update("delete from read_model_outbox");
+	}
+
+	@AfterEach
+	public void after() {
+		jdbcTemplate.update("delete from read_model_outbox");
+		jdbcTemplate.update("delete from member_team_view where username like 'view%'");
+		jdbcTemplate.update("delete from member_username_gram where member_id in (select member_id from Member where username like 'view%')");
+		jdbcTemplate.update("delete from Member where username like 'view%'");
+		jdbcTemplate.update("delete from team_statistics where team_id in (select id from Team where name like 'view%')");
+		jdbcTemplate.update("delete from Team where name like 'view%'");
+	}
+
+	// chunk 마다 flush 하는 대량 저장 - 회원마다 한 행이 아니라 flush 마다 연속 id 범위 한 행
+	@Test
+	public void savedMembersAreEnqueuedAsRanges() {
+		List<Member> members = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			members.add(new Member("view" + i, i));
+		}
+
+		transactionTemplate.executeWithoutResult(status -> memberRepository.saveAll(members, 10));
+
+		assertThat(outboxRows()).isBetween(1, 3);
+		projector.relayAll();
+		assertThat(outboxRows()).isZero();
+		assertThat(jdbcTemplate.queryForObject(
+				"select count(*) from member_team_view where username like 'view%'", Integer.class)).isEqualTo(25);
+	}
+
+	// 팀 이름 변경은 팀 한 행, relay 후 그 팀 회원 행의 team_name 이 바뀜
+	@Test
+	public void teamRenameIsOneRow() {
+		Long teamId = transactionTemplate.execute(status -> {
+			Team team = new Team("viewTeam");
+			em.persist(team);
+			for (int i = 0; i < 3; i++) {
+				em.persist(new Member("view" + i, i, team));
+			}
+			return team.getId();
+		});
+		projector.relayAll();
+
+		transactionTemplate.executeWithoutResult(status -> em.find(Team.class, teamId).setName("viewRenamed"));
+
+		assertThat(outboxRows()).isEqualTo(1);
+		projector.relayAll();
+		assertThat(jdbcTemplate.queryForList(
+				"select team_name from member_team_view where team_id = ?", String.class, teamId))
+				.containsExactly("viewRenamed", "viewRenamed", "viewRenamed");
+	}
+
+	private int outboxRows() {
+		return jdbcTemplate.queryForObject("select count(*) from read_model_outbox", Integer.class);
+	}
+}
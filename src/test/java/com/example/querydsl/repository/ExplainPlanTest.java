@@ -0,0 +1,179 @@
+package com.example.querydsl.repository;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import com.p6spy.engine.common.PreparedStatementInformation;
+import com.p6spy.engine.event.JdbcEventListener;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+리포지토리 검색 쿼리가 인덱스를 타는지 확인 (Member, Team 의 @Table(indexes))
+- 내장 h2(mysql 모드)에 ddl-auto=create 로 인덱스까지 만들고
+- p6spy 로 실제 실행된 sql(파라미터 포함)을 모아서 EXPLAIN
+- 실행 계획에 tableScan(전체 스캔)이 있으면 실패
+조건 없는 검색, findAll 은 전체를 읽는 게 맞으므로 대상이 아님
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.url=jdbc:h2:mem:explain;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create",
+		"spring.jpa.show-sql=false"
+})
+@Transactional
+class ExplainPlanTest {
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	MemberRepository memberRepository;
+
+	@Autowired
+	TeamRepository teamRepository;
+
+	@Autowired
+	SqlRecorder sqlRecorder;
+
+	@TestConfiguration
+	static class SqlRecorderConfig {
+		// p6spy 가 컨텍스트의 JdbcEventListener 빈을 리스너로 등록
+		@Bean
+		SqlRecorder sqlRecorder() {
+			return new SqlRecorder();
+		}
+	}
+
+	static class SqlRecorder extends JdbcEventListener {
+		private final ThreadLocal<List<String>> recorded = new ThreadLocal<>();
+
+		@Override
+		public void onAfterExecuteQuery(PreparedStatementInformation statementInformation, long timeElapsedNanos,
+										SQLException e) {
+			List<String> sql = recorded.get();
+			if (sql != null) {
+				sql.add(statementInformation.getSqlWithValues());
+			}
+		}
+
+		List<String> record(Runnable block) {
+			List<String> sql = new ArrayList<>();
+			recorded.set(sql);
+			try {
+				block.run();
+			} finally {
+				recorded.remove();
+			}
+			return sql;
+		}
+	}
+
+	@BeforeEach
+	public void before() {
+		// 이전 테스트의 쿼리 캐시 결과가 반환되면 sql 이 실행되지 않으므로 비움
+		em.getEntityManagerFactory().unwrap(SessionFactory.class).getCache().evictAllRegions();
+
+		List<Team> teams = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			teams.add(new Team("team" + i));
+		}
+		teamRepository.saveAll(teams);
+
+		List<Member> members = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			members.add(new Member("member" + i, i % 100, teams.get(i % teams.size())));
+		}
+		memberRepository.saveAll(members);
+
+		em.flush();
+		em.clear();
+	}
+
+	// block 에서 실행된 select 마다 EXPLAIN 해서 전체 스캔이 없는지 확인
+	private void assertNoFullScan(Runnable block) {
+		List<String> sql = sqlRecorder.record(block);
+		assertThat(sql).isNotEmpty();
+
+		for (String select : sql) {
+			String plan = explain(select);
+			assertThat(plan)
+					.as("full scan in plan of %s", select)
+					.doesNotContainIgnoringCase("tableScan");
+		}
+	}
+
+	private String explain(String sql) {
+		List<?> rows = em.createNativeQuery("explain " + sql).getResultList();
+		return rows.stream().map(String::valueOf).collect(Collectors.joining("\n"));
+	}
+
+	private MemberSearchCondition condition(String username, String teamName, Integer ageGoe, Integer ageLoe) {
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setUsername(username);
+		condition.setTeamName(teamName);
+		condition.setAgeGoe(ageGoe);
+		condition.setAgeLoe(ageLoe);
+		return condition;
+	}
+
+	@Test
+	public void findByUsername() {
+		assertNoFullScan(() -> memberRepository.findByname_queryDsl("member10"));
+	}
+
+	@Test
+	public void searchByUsername() {
+		assertNoFullScan(() -> memberRepository.searchByWhere(condition("member10", null, null, null)));
+	}
+
+	@Test
+	public void searchByTeamName() {
+		assertNoFullScan(() -> memberRepository.searchByWhere(condition(null, "team3", null, null)));
+	}
+
+	@Test
+	public void searchByTeamNameAndAge() {
+		assertNoFullScan(() -> memberRepository.searchByBuilder(condition(null, "team3", 30, 40)));
+	}
+
+	@Test
+	public void searchByAge() {
+		assertNoFullScan(() -> memberRepository.searchByWhere(condition(null, null, 90, 95)));
+	}
+
+	@Test
+	public void searchPageOrderByUsername() {
+		assertNoFullScan(() -> memberRepository.searchPageByWhere(condition(null, "team3", 10, null),
+				PageRequest.of(1, 5, Sort.by(Sort.Order.desc("username")))));
+	}
+
+	@Test
+	public void findAllByIds() {
+		List<Long> ids = em.createQuery("select m.id from Member m where m.age = 7", Long.class).getResultList();
+		assertNoFullScan(() -> memberRepository.findAllByIds(ids));
+	}
+
+	@Test
+	public void findTeamByName() {
+		assertNoFullScan(() -> teamRepository.findByName("team3"));
+	}
+}
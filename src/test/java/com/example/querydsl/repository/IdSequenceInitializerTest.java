@@ -0,0 +1,47 @@
+package com.example.querydsl.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// IDENTITY 시절 데이터처럼 시퀀스보다 큰 id 가 이미 있을 때 시퀀스가 그 뒤로 옮겨지는지 확인
+// (이미 메모리에 받아둔 pooled 블록은 그대로이므로 시작 시점과 같은 조건인 시퀀스 값으로 확인)
+@SpringBootTest
+@ActiveProfiles("h2")
+class IdSequenceInitializerTest {
+
+	@Autowired
+	IdSequenceInitializer initializer;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	public void after() {
+		jdbcTemplate.update("delete from Member where member_id = ?", 5_000_000L);
+	}
+
+	@Test
+	public void sequenceMovesPastExistingIds() {
+		jdbcTemplate.update("insert into Member (member_id, username, age) values (?, ?, ?)",
+				5_000_000L, "legacy", 10);
+
+		initializer.align();
+
+		long next = nextValue();
+		assertThat(next - 100).isGreaterThan(5_000_000L);
+
+		// 이미 맞춰져 있으면 다시 실행해도 줄어들지 않음
+		initializer.align();
+		assertThat(nextValue()).isGreaterThan(next);
+	}
+
+	private long nextValue() {
+		return jdbcTemplate.queryForObject("select next value for member_seq", Long.class);
+	}
+}
@@ -0,0 +1,122 @@
+package com.example.querydsl.repository;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.dto.MemberTeamDto;
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// ehcache.xml 에 둔 쿼리 캐시 영역, Team 2차 캐시가 실제로 적중하는지 통계로 확인
+// 쿼리 캐시는 커밋된 데이터, 트랜잭션마다 새 세션이어야 의미가 있으므로 @Transactional 없이 h2 에서 실행
+@SpringBootTest
+@ActiveProfiles("h2")
+class SecondLevelCacheTest {
+
+	private static final String TEAM_NAME = "cacheTeam";
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	EntityManagerFactory emf;
+
+	@Autowired
+	TeamRepository teamRepository;
+
+	@Autowired
+	MemberRepository memberRepository;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	Statistics statistics;
+	Long teamId;
+
+	@BeforeEach
+	public void before() {
+		teamId = transactionTemplate.execute(status -> {
+			Team team = new Team(TEAM_NAME);
+			em.persist(team);
+			em.persist(new Member("cacheMember1", 10, team));
+			em.persist(new Member("cacheMember2", 20, team));
+			return team.getId();
+		});
+
+		SessionFactory sessionFactory = emf.unwrap(SessionFactory.class);
+		sessionFactory.getCache().evictAllRegions();
+		statistics = sessionFactory.getStatistics();
+		statistics.clear();
+	}
+
+	@AfterEach
+	public void after() {
+		jdbcTemplate.update("delete from member_username_gram where member_id in (select member_id from Member where team_id = ?)", teamId);
+		jdbcTemplate.update("delete from Member where team_id = ?", teamId);
+		jdbcTemplate.update("delete from team_statistics where team_id = ?", teamId);
+		jdbcTemplate.update("delete from Team where id = ?", teamId);
+		emf.unwrap(SessionFactory.class).getCache().evictAllRegions();
+	}
+
+	@Test
+	public void findByNameHitsTeamByNameRegion() {
+		List<Team> first = transactionTemplate.execute(status -> teamRepository.findByName(TEAM_NAME));
+		List<Team> second = transactionTemplate.execute(status -> teamRepository.findByName(TEAM_NAME));
+
+		assertThat(first).extracting("id").containsExactly(teamId);
+		assertThat(second).extracting("id").containsExactly(teamId);
+
+		CacheRegionStatistics region = statistics.getQueryRegionStatistics("team-by-name");
+		assertThat(region.getMissCount()).isEqualTo(1);
+		assertThat(region.getPutCount()).isEqualTo(1);
+		assertThat(region.getHitCount()).isEqualTo(1);
+
+		// 두 번째 조회는 쿼리 캐시의 id 로 엔티티를 2차 캐시에서 꺼냄
+		CacheRegionStatistics teamRegion = statistics.getDomainDataRegionStatistics(Team.class.getName());
+		assertThat(teamRegion.getHitCount()).isGreaterThanOrEqualTo(1);
+	}
+
+	@Test
+	public void teamNameSearchHitsMemberByTeamNameRegion() {
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setTeamName(TEAM_NAME);
+
+		List<MemberTeamDto> first = memberRepository.searchByWhere(condition);
+		List<MemberTeamDto> second = memberRepository.searchByWhere(condition);
+
+		assertThat(first).extracting("username").containsExactlyInAnyOrder("cacheMember1", "cacheMember2");
+		assertThat(second).extracting("username").containsExactlyInAnyOrder("cacheMember1", "cacheMember2");
+
+		CacheRegionStatistics region = statistics.getQueryRegionStatistics("member-by-team-name");
+		assertThat(region.getMissCount()).isEqualTo(1);
+		assertThat(region.getHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void findByIdHitsTeamRegion() {
+		transactionTemplate.execute(status -> teamRepository.findById(teamId));
+		transactionTemplate.execute(status -> teamRepository.findById(teamId));
+
+		CacheRegionStatistics teamRegion = statistics.getDomainDataRegionStatistics(Team.class.getName());
+		assertThat(teamRegion.getMissCount()).isEqualTo(1);
+		assertThat(teamRegion.getHitCount()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,184 @@
+package com.example.querydsl.routing;
+
+import com.example.querydsl.routing.ReplicaRoutingDataSource.Strategy;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.H2Dialect;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.servlet.http.Cookie;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// primary, 복제본 대신 이름만 다른 내장 db 를 사용 (각 db 의 db_name 테이블에 자기 이름 저장)
+// 애플리케이션과 같이 JpaTransactionManager 로 트랜잭션을 열어서 readOnly 여부가 커넥션을 얻기 전에 정해지는지 확인
+class ReplicaRoutingDataSourceTest {
+
+	private EntityManagerFactory emf;
+	private EntityManager em;
+	private TransactionTemplate writeTx;
+	private TransactionTemplate readTx;
+
+	private void setUp(Strategy strategy, Duration readYourWrites, String... replicaNames) {
+		Map<String, DataSource> replicas = new LinkedHashMap<>();
+		for (String name : replicaNames) {
+			replicas.put(name, database(name));
+		}
+		ReadYourWrites tracker = new ReadYourWrites(readYourWrites);
+		ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+				database("primary"), replicas, strategy, tracker);
+
+		HibernateJpaVendorAdapter vendorAdapter = new HibernateJpaVendorAdapter();
+		vendorAdapter.setDatabasePlatform(H2Dialect.class.getName());
+		Map<String, Object> properties = new HashMap<>();
+		properties.put(AvailableSettings.STATEMENT_INSPECTOR, new ReadYourWritesInspector(null, tracker));
+
+		LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+		factory.setDataSource(new LazyConnectionDataSourceProxy(routing));
+		factory.setPackagesToScan(ReplicaRoutingDataSourceTest.class.getPackage().getName());
+		factory.setJpaVendorAdapter(vendorAdapter);
+		factory.setJpaPropertyMap(properties);
+		factory.afterPropertiesSet();
+		emf = factory.getObject();
+
+		em = SharedEntityManagerCreator.createSharedEntityManager(emf);
+		JpaTransactionManager transactionManager = new JpaTransactionManager(emf);
+		writeTx = new TransactionTemplate(transactionManager);
+		readTx = new TransactionTemplate(transactionManager);
+		readTx.setReadOnly(true);
+	}
+
+	@AfterEach
+	public void after() {
+		RequestContextHolder.resetRequestAttributes();
+		if (emf != null) {
+			emf.close();
+		}
+	}
+
+	private DataSource database(String name) {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+		JdbcTemplate template = new JdbcTemplate(dataSource);
+		template.execute("create table db_name (name varchar(20))");
+		template.update("insert into db_name values (?)", name);
+		return dataSource;
+	}
+
+	private String currentDb() {
+		return (String) em.createNativeQuery("select name from db_name").getSingleResult();
+	}
+
+	private int write() {
+		return em.createNativeQuery("update db_name set name = name").executeUpdate();
+	}
+
+	private MockHttpServletResponse startRequest(Cookie... cookies) {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		if (cookies.length > 0) {
+			request.setCookies(cookies);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+		return response;
+	}
+
+	@Test
+	public void readOnlyTransactionGoesToReplica() {
+		setUp(Strategy.ROUND_ROBIN, Duration.ZERO, "replica");
+
+		assertThat(readTx.execute(status -> currentDb())).isEqualTo("replica");
+		assertThat(writeTx.execute(status -> currentDb())).isEqualTo("primary");
+		// 트랜잭션 밖의 호출은 primary
+		assertThat(currentDb()).isEqualTo("primary");
+	}
+
+	@Test
+	public void readOnlyJoiningWriteTransactionStaysOnPrimary() {
+		setUp(Strategy.ROUND_ROBIN, Duration.ZERO, "replica");
+
+		String db = writeTx.execute(status -> {
+			write();
+			return readTx.execute(inner -> currentDb());
+		});
+		assertThat(db).isEqualTo("primary");
+	}
+
+	@Test
+	public void roundRobin() {
+		setUp(Strategy.ROUND_ROBIN, Duration.ZERO, "replica1", "replica2");
+
+		assertThat(readTx.execute(status -> currentDb())).isEqualTo("replica1");
+		assertThat(readTx.execute(status -> currentDb())).isEqualTo("replica2");
+		assertThat(readTx.execute(status -> currentDb())).isEqualTo("replica1");
+	}
+
+	@Test
+	public void readYourWritesFollowsUser() {
+		setUp(Strategy.LEAST_LOADED, Duration.ofMinutes(1), "replica");
+		MockHttpServletResponse response = startRequest();
+
+		assertThat(readTx.execute(status -> currentDb())).isEqualTo("replica");
+
+		// 쓰기 트랜잭션이어도 실제로 쓴 것이 없으면 기록하지 않음
+		writeTx.execute(status -> currentDb());
+		assertThat(readTx.execute(status -> currentDb())).isEqualTo("replica");
+		assertThat(response.getCookie(ReadYourWrites.COOKIE)).isNull();
+
+		// 쓰기 커밋 직후 같은 요청의 읽기는 primary, 응답에 커밋 시각 쿠키
+		writeTx.execute(status -> write());
+		assertThat(readTx.execute(status -> currentDb())).isEqualTo("primary");
+		Cookie lastWrite = response.getCookie(ReadYourWrites.COOKIE);
+		assertThat(lastWrite).isNotNull();
+
+		// 같은 스레드를 이어받은 다른 사용자의 요청은 영향 없음
+		startRequest();
+		assertThat(readTx.execute(status -> currentDb())).isEqualTo("replica");
+
+		// 쿠키를 가진 같은 사용자의 다음 요청은 다른 스레드에서 처리되어도 primary
+		String[] next = new String[1];
+		Thread thread = new Thread(() -> {
+			startRequest(lastWrite);
+			try {
+				next[0] = readTx.execute(status -> currentDb());
+			} finally {
+				RequestContextHolder.resetRequestAttributes();
+			}
+		});
+		thread.start();
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		assertThat(next[0]).isEqualTo("primary");
+	}
+
+	// 쿠키가 window 보다 오래되었으면 복제본
+	@Test
+	public void expiredWriteGoesToReplica() {
+		setUp(Strategy.ROUND_ROBIN, Duration.ofSeconds(1), "replica");
+		startRequest(new Cookie(ReadYourWrites.COOKIE, Long.toString(System.currentTimeMillis() - 5_000)));
+
+		assertThat(readTx.execute(status -> currentDb())).isEqualTo("replica");
+	}
+}
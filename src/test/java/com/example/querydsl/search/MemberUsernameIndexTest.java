@@ -0,0 +1,100 @@
+package com.example.querydsl.search;
+
+import com.example.querydsl.entity.Member;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 색인이 실제 커밋 경로(flush 후 발행되는 변경 목록)로 갱신되는지, rebuild 가 chunk 단위로 다시 만드는지 확인 (h2)
+@SpringBootTest
+@ActiveProfiles("h2")
+class MemberUsernameIndexTest {
+
+	@Autowired
+	MemberUsernameIndex memberUsernameIndex;
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	public void after() {
+		jdbcTemplate.update("delete from member_username_gram");
+		jdbcTemplate.update("delete from Member where username like 'idx%'");
+	}
+
+	@Test
+	public void indexFollowsCommittedChanges() {
+		Long id = transactionTemplate.execute(status -> {
+			Member member = new Member("idxAlpha", 10);
+			em.persist(member);
+			return member.getId();
+		});
+		assertThat(grams(id)).containsExactlyInAnyOrderElementsOf(UsernameGrams.of("idxAlpha"));
+
+		// 이름 변경 - 예전 gram 은 지우고 새 이름으로
+		transactionTemplate.executeWithoutResult(status -> em.find(Member.class, id).setUsername("idxBeta"));
+		assertThat(grams(id)).containsExactlyInAnyOrderElementsOf(UsernameGrams.of("idxBeta"));
+
+		// 나이만 바뀌면 색인은 그대로
+		transactionTemplate.executeWithoutResult(status -> em.find(Member.class, id).setAge(20));
+		assertThat(grams(id)).containsExactlyInAnyOrderElementsOf(UsernameGrams.of("idxBeta"));
+
+		transactionTemplate.executeWithoutResult(status -> em.remove(em.find(Member.class, id)));
+		assertThat(grams(id)).isEmpty();
+	}
+
+	// 한 트랜잭션에서 추가, 이름 변경, 삭제가 섞여도 마지막 상태만 남음
+	@Test
+	public void changesInOneTransactionCollapse() {
+		Long[] ids = transactionTemplate.execute(status -> {
+			Member renamed = new Member("idxFirst", 10);
+			Member removed = new Member("idxGone", 10);
+			em.persist(renamed);
+			em.persist(removed);
+			em.flush();
+			renamed.setUsername("idxSecond");
+			em.remove(removed);
+			return new Long[]{renamed.getId(), removed.getId()};
+		});
+
+		assertThat(grams(ids[0])).containsExactlyInAnyOrderElementsOf(UsernameGrams.of("idxSecond"));
+		assertThat(grams(ids[1])).isEmpty();
+	}
+
+	// 색인이 어긋난 상태(빠진 gram, 삭제된 회원의 gram)에서 rebuild
+	@Test
+	public void rebuildInChunks() {
+		int members = 2_500;
+		for (int i = 0; i < members; i++) {
+			jdbcTemplate.update("insert into Member (member_id, username, age) values (?, ?, ?)",
+					9_000_000L + i, "idx" + i, i % 50);
+		}
+		jdbcTemplate.update("insert into member_username_gram (gram, member_id) values ('zzz', ?)", 9_999_999L);
+
+		long indexed = memberUsernameIndex.rebuild();
+
+		// 다른 테스트가 남긴 회원이 있어도 그 회원까지 색인
+		assertThat(indexed).isGreaterThanOrEqualTo(members);
+		assertThat(grams(9_000_000L + 1234)).containsExactlyInAnyOrderElementsOf(UsernameGrams.of("idx1234"));
+		assertThat(grams(9_999_999L)).isEmpty();
+	}
+
+	private List<String> grams(Long memberId) {
+		return jdbcTemplate.queryForList("select gram from member_username_gram where member_id = ?", String.class, memberId);
+	}
+}
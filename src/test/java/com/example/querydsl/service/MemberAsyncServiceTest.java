@@ -0,0 +1,131 @@
+package com.example.querydsl.service;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.dto.MemberTeamDto;
+import com.example.querydsl.repository.MemberRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// 리포지토리, 트랜잭션 매니저는 mock 으로 두고 스레드풀 동작만 확인
+class MemberAsyncServiceTest {
+
+	MemberRepository memberRepository = mock(MemberRepository.class);
+	PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+	ThreadPoolTaskExecutor executor;
+
+	@AfterEach
+	public void after() {
+		executor.shutdown();
+	}
+
+	// 스레드가 하나뿐이어도 컨텐츠 작업이 카운트 작업을 기다리며 스레드를 막지 않음
+	@Test
+	public void pageCompletesOnSingleThreadPool() throws Exception {
+		MemberAsyncService service = service(1, 10);
+		Pageable pageable = PageRequest.of(0, 2);
+		when(memberRepository.searchContentByWhere(any(), any())).thenReturn(List.of(
+				new MemberTeamDto(1L, "member1", 10, 1L, "teamA"),
+				new MemberTeamDto(2L, "member2", 20, 1L, "teamA")));
+		when(memberRepository.countByWhere(any())).thenReturn(5L);
+
+		Page<MemberTeamDto> page = service.searchPageByWhere(new MemberSearchCondition(), pageable)
+				.get(5, TimeUnit.SECONDS);
+
+		assertThat(page.getContent()).hasSize(2);
+		assertThat(page.getTotalElements()).isEqualTo(5);
+	}
+
+	// 작업마다 읽기 전용 트랜잭션
+	@Test
+	public void runsInReadOnlyTransaction() throws Exception {
+		MemberAsyncService service = service(1, 10);
+		when(memberRepository.searchByWhere(any())).thenReturn(List.of());
+
+		service.searchByWhere(new MemberSearchCondition()).get(5, TimeUnit.SECONDS);
+
+		verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+	}
+
+	// 스레드풀, 큐가 가득 차면 기다리지 않고 실패한 future
+	@Test
+	public void rejectsWhenPoolIsFull() throws Exception {
+		MemberAsyncService service = service(1, 0);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(memberRepository.searchByWhere(any())).thenAnswer(invocation -> {
+			started.countDown();
+			release.await();
+			return List.of();
+		});
+
+		CompletableFuture<List<MemberTeamDto>> running = service.searchByWhere(new MemberSearchCondition());
+		started.await(5, TimeUnit.SECONDS);
+
+		CompletableFuture<List<MemberTeamDto>> rejected = service.searchByWhere(new MemberSearchCondition());
+		assertThatThrownBy(rejected::get)
+				.isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(TaskRejectedException.class);
+
+		release.countDown();
+		assertThat(running.get(5, TimeUnit.SECONDS)).isEmpty();
+	}
+
+	// 카운트 작업이 거절되면 큐에 들어간 컨텐츠 작업은 실행하지 않음
+	@Test
+	public void rejectedCountSkipsQueuedContent() throws Exception {
+		MemberAsyncService service = service(1, 1);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(memberRepository.searchByWhere(any())).thenAnswer(invocation -> {
+			started.countDown();
+			release.await();
+			return List.of();
+		});
+
+		CompletableFuture<List<MemberTeamDto>> running = service.searchByWhere(new MemberSearchCondition());
+		started.await(5, TimeUnit.SECONDS);
+
+		CompletableFuture<Page<MemberTeamDto>> page =
+				service.searchPageByBuilder(new MemberSearchCondition(), PageRequest.of(0, 10));
+		assertThatThrownBy(page::get)
+				.isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(TaskRejectedException.class);
+
+		release.countDown();
+		running.get(5, TimeUnit.SECONDS);
+		// 스레드 하나가 큐 순서대로 실행하므로 이 작업이 끝나면 앞의 컨텐츠 작업도 처리됨
+		service.searchByWhere(new MemberSearchCondition()).get(5, TimeUnit.SECONDS);
+		verify(memberRepository, never()).searchContentByBuilder(any(), any());
+	}
+
+	private MemberAsyncService service(int poolSize, int queueCapacity) {
+		executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.initialize();
+		return new MemberAsyncService(memberRepository, executor, transactionManager);
+	}
+}
@@ -0,0 +1,139 @@
+package com.example.querydsl.service;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// chunk 마다 REQUIRES_NEW 로 커밋되는지 확인 - 커밋 여부를 봐야 하므로 @Transactional 없이 h2 에서 실행
+@SpringBootTest
+@ActiveProfiles("h2")
+class MemberBulkServiceTest {
+
+	private static final String TEAM_NAME = "bulkTeam";
+	private static final int MEMBERS = 25;
+	private static final int CHUNK_SIZE = 10;
+
+	@Autowired
+	MemberBulkService memberBulkService;
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	Long teamId;
+	long minId;
+	long maxId;
+
+	@BeforeEach
+	public void before() {
+		List<Long> ids = new ArrayList<>();
+		teamId = transactionTemplate.execute(status -> {
+			Team team = new Team(TEAM_NAME);
+			em.persist(team);
+			for (int i = 0; i < MEMBERS; i++) {
+				Member member = new Member("bulk" + i, 10, team);
+				em.persist(member);
+				ids.add(member.getId());
+			}
+			return team.getId();
+		});
+		minId = ids.stream().mapToLong(Long::longValue).min().getAsLong();
+		maxId = ids.stream().mapToLong(Long::longValue).max().getAsLong();
+	}
+
+	@AfterEach
+	public void after() {
+		jdbcTemplate.update("delete from member_username_gram where member_id in (select member_id from Member where team_id = ?)", teamId);
+		jdbcTemplate.update("delete from Member where team_id = ?", teamId);
+		jdbcTemplate.update("delete from team_statistics where team_id = ?", teamId);
+		jdbcTemplate.update("delete from Team where id = ?", teamId);
+	}
+
+	@Test
+	public void addAgeInChunks() {
+		List<BulkResult> progress = new ArrayList<>();
+
+		BulkResult result = memberBulkService.addAge(condition(), 1, CHUNK_SIZE, progress::add);
+
+		int expectedChunks = (int) ((maxId - minId) / CHUNK_SIZE + 1);
+		assertThat(result.getAffectedRows()).isEqualTo(MEMBERS);
+		assertThat(result.getChunks()).isEqualTo(expectedChunks);
+		assertThat(result.getLastProcessedId()).isEqualTo(maxId);
+		assertThat(progress).hasSize(expectedChunks);
+		assertThat(progress).extracting(BulkResult::getLastProcessedId).isSorted();
+		assertThat(agesOfTeam()).containsOnly(11);
+	}
+
+	// 중간에 실패해도 이미 끝난 chunk 는 커밋되어 있고 나머지는 그대로
+	@Test
+	public void committedChunksSurviveFailure() {
+		long[] lastCommitted = new long[1];
+
+		assertThatThrownBy(() -> memberBulkService.addAge(condition(), 1, CHUNK_SIZE, progress -> {
+			lastCommitted[0] = progress.getLastProcessedId();
+			throw new IllegalStateException("stop");
+		})).isInstanceOf(IllegalStateException.class);
+
+		Integer changed = jdbcTemplate.queryForObject(
+				"select count(*) from Member where team_id = ? and age = 11 and member_id <= ?",
+				Integer.class, teamId, lastCommitted[0]);
+		Integer unchanged = jdbcTemplate.queryForObject(
+				"select count(*) from Member where team_id = ? and age = 10 and member_id > ?",
+				Integer.class, teamId, lastCommitted[0]);
+		assertThat(changed).isGreaterThan(0);
+		assertThat(changed + unchanged).isEqualTo(MEMBERS);
+	}
+
+	// 호출한 쪽의 트랜잭션이 롤백되어도 chunk 는 각자 커밋됨
+	@Test
+	public void chunksCommitIndependentlyOfCaller() {
+		transactionTemplate.execute(status -> {
+			memberBulkService.addAge(condition(), 1, CHUNK_SIZE, null);
+			status.setRollbackOnly();
+			return null;
+		});
+
+		assertThat(agesOfTeam()).containsOnly(11);
+	}
+
+	// chunk 크기가 0 이하면 끝나지 않으므로 시작 전에 거절
+	@Test
+	public void rejectsNonPositiveChunkSize() {
+		assertThatThrownBy(() -> memberBulkService.addAge(condition(), 1, 0, null))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> memberBulkService.delete(condition(), -1, null))
+				.isInstanceOf(IllegalArgumentException.class);
+
+		assertThat(agesOfTeam()).containsOnly(10);
+	}
+
+	private MemberSearchCondition condition() {
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setTeamName(TEAM_NAME);
+		return condition;
+	}
+
+	private List<Integer> agesOfTeam() {
+		return jdbcTemplate.queryForList("select age from Member where team_id = ?", Integer.class, teamId);
+	}
+}
@@ -0,0 +1,184 @@
+package com.example.querydsl.shard;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.dto.MemberTeamDto;
+import com.example.querydsl.dto.TeamStatisticsDto;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 샤드 대신 내장 db 3개 사용
+class ShardedMemberRepositoryTest {
+
+	private ShardedMemberRepository repository;
+	private List<DataSource> shards;
+	private List<Long> teamIds;
+
+	@BeforeEach
+	public void before() {
+		shards = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			JdbcDataSource dataSource = new JdbcDataSource();
+			dataSource.setURL("jdbc:h2:mem:shard" + i + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+			shards.add(dataSource);
+		}
+		repository = new ShardedMemberRepository(shards);
+		repository.initSchema();
+
+		// 팀마다 회원 10명, 나이는 팀 번호 * 100 + 0..9
+		teamIds = new ArrayList<>();
+		for (int t = 0; t < 6; t++) {
+			long teamId = repository.saveTeam("team" + t);
+			teamIds.add(teamId);
+			for (int m = 0; m < 10; m++) {
+				repository.saveMember("member" + t + "-" + m, t * 100 + m, teamId);
+			}
+		}
+		repository.saveMember("loner1", 1, null);
+		repository.saveMember("loner2", 2, null);
+		repository.saveMember("loner3", 3, null);
+	}
+
+	@AfterEach
+	public void after() throws Exception {
+		repository.close();
+	}
+
+	@Test
+	public void teamIsStoredOnItsShard() {
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setTeamName("team2");
+
+		List<MemberTeamDto> result = repository.searchByWhere(condition);
+
+		assertThat(result).hasSize(10).allMatch(dto -> "team2".equals(dto.getTeamName()));
+		// id 에 샤드 번호가 들어있음
+		assertThat(result).allMatch(dto -> repository.shardOfId(dto.getMemberId()) == repository.shardOfTeam(teamIds.get(2)));
+		assertThat(repository.findById(result.get(0).getMemberId())).contains(result.get(0));
+	}
+
+	@Test
+	public void scatterGatherSearch() {
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setAgeGoe(205);
+		condition.setAgeLoe(404);
+
+		List<MemberTeamDto> result = repository.searchByWhere(condition);
+
+		assertThat(result).extracting("age").containsExactlyInAnyOrder(
+				205, 206, 207, 208, 209,
+				300, 301, 302, 303, 304, 305, 306, 307, 308, 309,
+				400, 401, 402, 403, 404);
+		assertThat(repository.countByWhere(condition)).isEqualTo(20);
+		assertThat(repository.countByWhere(new MemberSearchCondition())).isEqualTo(63);
+	}
+
+	@Test
+	public void scatterGatherPageIsGloballyOrdered() {
+		MemberSearchCondition condition = new MemberSearchCondition();
+		Sort sort = Sort.by(Sort.Order.desc("age"));
+
+		// 모든 샤드의 결과를 합쳐서 정렬한 뒤 자른 결과는 한 db 에서 정렬한 결과와 같아야 함
+		List<Integer> ages = new ArrayList<>();
+		for (int page = 0; page < 7; page++) {
+			Page<MemberTeamDto> result = repository.searchPageByWhere(condition, PageRequest.of(page, 10, sort));
+			assertThat(result.getTotalElements()).isEqualTo(63);
+			result.forEach(dto -> ages.add(dto.getAge()));
+		}
+
+		assertThat(ages).hasSize(63).isSortedAccordingTo((a, b) -> Integer.compare(b, a));
+		assertThat(ages.subList(0, 3)).containsExactly(509, 508, 507);
+		assertThat(ages.subList(60, 63)).containsExactly(3, 2, 1);
+	}
+
+	@Test
+	public void statisticsAreMergedAcrossShards() {
+		List<TeamStatisticsDto> result = repository.statisticsByTeam(new MemberSearchCondition());
+
+		assertThat(result).hasSize(7);
+		// 팀 없는 회원은 여러 샤드에 나뉘어 있어도 하나로 합쳐짐
+		TeamStatisticsDto noTeam = result.get(0);
+		assertThat(noTeam.getTeamName()).isNull();
+		assertThat(noTeam.getMemberCount()).isEqualTo(3);
+		assertThat(noTeam.getAgeSum()).isEqualTo(6);
+		assertThat(noTeam.getMinAge()).isEqualTo(1);
+		assertThat(noTeam.getMaxAge()).isEqualTo(3);
+
+		TeamStatisticsDto team3 = result.get(4);
+		assertThat(team3.getTeamName()).isEqualTo("team3");
+		assertThat(team3.getMemberCount()).isEqualTo(10);
+		assertThat(team3.getAgeSum()).isEqualTo(3045);
+	}
+
+	@Test
+	public void changeTeamMovesMemberAcrossShards() {
+		// team0 과 다른 샤드의 팀
+		int target = -1;
+		for (int t = 1; t < 6; t++) {
+			if (repository.shardOfTeam(teamIds.get(t)) != repository.shardOfTeam(teamIds.get(0))) {
+				target = t;
+				break;
+			}
+		}
+		assertThat(target).isPositive();
+
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setUsername("member0-0");
+		long memberId = repository.searchByWhere(condition).get(0).getMemberId();
+
+		repository.changeTeam(memberId, teamIds.get(target));
+
+		List<MemberTeamDto> result = repository.searchByWhere(condition);
+		assertThat(result).hasSize(1);
+		assertThat(result.get(0).getMemberId()).isEqualTo(memberId);
+		assertThat(result.get(0).getTeamName()).isEqualTo("team" + target);
+		assertThat(repository.countByWhere(new MemberSearchCondition())).isEqualTo(63);
+
+		// id 의 샤드가 아닌 곳으로 옮겨도 findById 로 찾음, 다시 돌아와도 마찬가지
+		assertThat(repository.findById(memberId)).contains(result.get(0));
+		// 지금 샤드는 회원 id 로 찾음
+		repository.changeTeam(memberId, teamIds.get(0));
+		assertThat(repository.findById(memberId)).get().extracting("teamName").isEqualTo("team0");
+		assertThat(repository.countByWhere(new MemberSearchCondition())).isEqualTo(63);
+	}
+
+	@Test
+	public void changeTeamRejectsUnknownMemberOrTeam() {
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setUsername("member1-0");
+		long memberId = repository.searchByWhere(condition).get(0).getMemberId();
+
+		assertThatThrownBy(() -> repository.changeTeam(memberId + ShardedMemberRepository.MAX_SHARDS * 1000L, teamIds.get(0)))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> repository.changeTeam(memberId, teamIds.get(0) + ShardedMemberRepository.MAX_SHARDS * 1000L))
+				.isInstanceOf(IllegalArgumentException.class);
+		// 팀에서 빼면 지금 샤드에 그대로
+		repository.changeTeam(memberId, null);
+		assertThat(repository.findById(memberId)).get().extracting("teamName").isNull();
+		assertThat(repository.countByWhere(new MemberSearchCondition())).isEqualTo(63);
+	}
+
+	// 샤드에도 엔티티와 같은 인덱스, 다시 실행해도 그대로
+	@Test
+	public void shardsHaveEntityIndexes() {
+		repository.initSchema();
+
+		for (DataSource shard : shards) {
+			List<String> indexes = new JdbcTemplate(shard).queryForList(
+					"select lower(index_name) from information_schema.indexes where lower(table_name) = 'member'", String.class);
+			assertThat(indexes).contains("uk_member_username", "idx_member_username", "idx_member_team_age", "idx_member_age");
+		}
+	}
+}
@@ -0,0 +1,135 @@
+package com.example.querydsl.statistics;
+
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import com.example.querydsl.repository.MemberRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 회원 변경을 실제로 커밋해서(flush 후, 커밋 직전 발행) 팀 통계가 회원 테이블 집계와 같은지 확인 (h2)
+@SpringBootTest
+@ActiveProfiles("h2")
+class TeamStatisticsUpdaterTest {
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	MemberRepository memberRepository;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	public void after() {
+		jdbcTemplate.update("delete from member_username_gram where member_id in (select member_id from Member where username like 'stat%')");
+		jdbcTemplate.update("delete from Member where username like 'stat%'");
+		jdbcTemplate.update("delete from team_statistics where team_id in (select id from Team where name like 'stat%')");
+		jdbcTemplate.update("delete from Team where name like 'stat%'");
+	}
+
+	// 새 팀과 회원을 한 트랜잭션에서 저장 - 팀은 다시 계산만 하고 회원 증감을 또 더하지 않음
+	@Test
+	public void newTeamWithMembersIsCountedOnce() {
+		Long teamId = transactionTemplate.execute(status -> {
+			Team team = new Team("statTeam");
+			em.persist(team);
+			em.persist(new Member("stat1", 10, team));
+			em.persist(new Member("stat2", 20, team));
+			em.persist(new Member("stat3", 30, team));
+			return team.getId();
+		});
+
+		assertStatistics(teamId, 3, 60, 10, 30);
+	}
+
+	// 팀 저장 후 chunk 마다 flush 하며 회원 저장 - 앞 flush 에서 다시 계산한 팀에 뒤 flush 의 회원은 더함
+	@Test
+	public void teamAndMembersAcrossFlushes() {
+		Long teamId = transactionTemplate.execute(status -> {
+			Team team = new Team("statTeam");
+			em.persist(team);
+			List<Member> members = new ArrayList<>();
+			for (int i = 0; i < 25; i++) {
+				members.add(new Member("stat" + i, i, team));
+			}
+			em.persist(new Member("statFirst", 100, team));
+			em.flush();
+			memberRepository.saveAll(members, 10);
+			return team.getId();
+		});
+
+		assertStatistics(teamId, 26, 300 + 100, 0, 100);
+	}
+
+	// 통계 행이 없는 기존 팀에 회원 추가 - 다시 계산한 값에 이번 회원이 이미 들어있음
+	@Test
+	public void teamWithoutRowIsRecomputedOnce() {
+		Long teamId = transactionTemplate.execute(status -> {
+			Team team = new Team("statTeam");
+			em.persist(team);
+			return team.getId();
+		});
+		jdbcTemplate.update("delete from team_statistics where team_id = ?", teamId);
+
+		transactionTemplate.executeWithoutResult(status -> {
+			Team team = em.find(Team.class, teamId);
+			em.persist(new Member("stat1", 10, team));
+			em.persist(new Member("stat2", 20, team));
+		});
+
+		assertStatistics(teamId, 2, 30, 10, 20);
+	}
+
+	// 팀 이동, 나이 변경, 삭제, 추가가 한 트랜잭션에 섞인 경우
+	@Test
+	public void mixedChangesInOneTransaction() {
+		Long[] teamIds = transactionTemplate.execute(status -> {
+			Team teamA = new Team("statA");
+			Team teamB = new Team("statB");
+			em.persist(teamA);
+			em.persist(teamB);
+			em.persist(new Member("stat10", 10, teamA));
+			em.persist(new Member("stat20", 20, teamA));
+			em.persist(new Member("stat30", 30, teamA));
+			em.persist(new Member("stat50", 50, teamB));
+			return new Long[]{teamA.getId(), teamB.getId()};
+		});
+
+		transactionTemplate.executeWithoutResult(status -> {
+			Team teamA = em.find(Team.class, teamIds[0]);
+			Team teamB = em.find(Team.class, teamIds[1]);
+			memberRepository.findByname_queryDsl("stat10").get(0).changeTeam(teamB);
+			memberRepository.findByname_queryDsl("stat30").get(0).setAge(5);
+			em.remove(memberRepository.findByname_queryDsl("stat20").get(0));
+			em.persist(new Member("stat40", 40, teamA));
+		});
+
+		assertStatistics(teamIds[0], 2, 45, 5, 40);
+		assertStatistics(teamIds[1], 2, 60, 10, 50);
+	}
+
+	private void assertStatistics(Long teamId, long count, long ageSum, int minAge, int maxAge) {
+		Map<String, Object> row = jdbcTemplate.queryForMap(
+				"select member_count, age_sum, min_age, max_age from team_statistics where team_id = ?", teamId);
+		assertThat(((Number) row.get("member_count")).longValue()).isEqualTo(count);
+		assertThat(((Number) row.get("age_sum")).longValue()).isEqualTo(ageSum);
+		assertThat(((Number) row.get("min_age")).intValue()).isEqualTo(minAge);
+		assertThat(((Number) row.get("max_age")).intValue()).isEqualTo(maxAge);
+	}
+}